@@ -0,0 +1,102 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.benchmarks;
+
+import net.milkbowl.vault.chat.Chat;
+import net.milkbowl.vault.metrics.InstrumentedChat;
+import net.milkbowl.vault.metrics.ServiceMetrics;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prefix and info node lookups of online players, as done by chat formatting on every message.
+ * Half of the players have an own prefix, the others fall back to their group.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@Threads(4)
+@State(Scope.Benchmark)
+public class ChatBenchmark {
+
+    private static final String[] GROUPS = {"default", "member", "vip", "admin"};
+    private static final int PLAYERS = 256;
+
+    @Param({"map", "instrumented"})
+    public String chat;
+
+    private Chat target;
+    private Player[] players;
+
+    @Setup
+    public void setUp() {
+        MapPermission permission = new MapPermission();
+        MapChat map = new MapChat(permission);
+        for (int g = 0; g < GROUPS.length; g++) {
+            permission.addGroup(GROUPS[g], g == 0 ? null : GROUPS[g - 1]);
+            map.setGroupPrefix((String) null, GROUPS[g], "&7[" + GROUPS[g] + "] ");
+            map.setGroupInfoInteger((String) null, GROUPS[g], "homes", 1 << g);
+        }
+        World world = Stubs.world("world");
+        Random random = new Random(42);
+        players = new Player[PLAYERS];
+        for (int i = 0; i < PLAYERS; i++) {
+            players[i] = Stubs.player(new UUID(random.nextLong(), random.nextLong()), world);
+            permission.playerAddGroup(null, players[i], GROUPS[i % GROUPS.length]);
+            if (i % 2 == 0) {
+                map.setPlayerPrefix((String) null, players[i], "&6[#" + i + "] ");
+            }
+        }
+        target = switch (chat) {
+            case "map" -> map;
+            case "instrumented" -> new InstrumentedChat(map, new ServiceMetrics("MapChat", false));
+            default -> throw new IllegalArgumentException(chat);
+        };
+    }
+
+    @Benchmark
+    public String getPlayerPrefix(Picker picker) {
+        return target.getPlayerPrefix(players[picker.next(PLAYERS)]);
+    }
+
+    @Benchmark
+    public int getPlayerInfoInteger(Picker picker) {
+        return target.getPlayerInfoInteger(players[picker.next(PLAYERS)], "homes", 0);
+    }
+
+    @Benchmark
+    public String[] getPlayerGroups(Picker picker) {
+        return target.getPlayerGroups(players[picker.next(PLAYERS)]);
+    }
+}
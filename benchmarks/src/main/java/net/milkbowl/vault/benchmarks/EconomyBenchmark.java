@@ -0,0 +1,123 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.benchmarks;
+
+import net.milkbowl.vault.economy.CachingEconomy;
+import net.milkbowl.vault.economy.Economy;
+import net.milkbowl.vault.economy.EconomyResponse;
+import net.milkbowl.vault.economy.MemoryEconomy;
+import net.milkbowl.vault.metrics.InstrumentedEconomy;
+import net.milkbowl.vault.metrics.ServiceMetrics;
+import org.bukkit.OfflinePlayer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Balance reads and mutations of {@link MemoryEconomy}, alone and behind the decorators.
+ * Every thread picks accounts at random from a fixed pool, a single account measures the fully contended case.
+ * The caching economy only writes back on {@link CachingEconomy#flush()}, so the {@code writeBehind} group
+ * deposits on three threads while a fourth flushes the dirty balances to the delegate.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@Threads(4)
+@State(Scope.Benchmark)
+public class EconomyBenchmark {
+
+    private static final double START_BALANCE = 1_000_000_000;
+
+    @Param({"memory", "caching", "instrumented"})
+    public String economy;
+
+    @Param({"1", "1024"})
+    public int accounts;
+
+    private Economy target;
+    private OfflinePlayer[] players;
+
+    @Setup
+    public void setUp() {
+        MemoryEconomy memory = new MemoryEconomy("Memory", 2, "Dollar", "Dollars");
+        target = switch (economy) {
+            case "memory" -> memory;
+            case "caching" -> new CachingEconomy(memory, 4096, 1, TimeUnit.MINUTES);
+            case "instrumented" -> new InstrumentedEconomy(memory, new ServiceMetrics("Memory", false));
+            default -> throw new IllegalArgumentException(economy);
+        };
+        Random random = new Random(42);
+        players = new OfflinePlayer[accounts];
+        for (int i = 0; i < accounts; i++) {
+            players[i] = Stubs.offlinePlayer(new UUID(random.nextLong(), random.nextLong()));
+            target.createPlayerAccount(players[i]);
+            target.depositPlayer(players[i], START_BALANCE);
+        }
+    }
+
+    @Benchmark
+    public double getBalance(Picker picker) {
+        return target.getBalance(players[picker.next(accounts)]);
+    }
+
+    @Benchmark
+    public EconomyResponse depositPlayer(Picker picker) {
+        return target.depositPlayer(players[picker.next(accounts)], 0.01);
+    }
+
+    @Benchmark
+    public EconomyResponse withdrawPlayer(Picker picker) {
+        return target.withdrawPlayer(players[picker.next(accounts)], 0.01);
+    }
+
+    @Benchmark
+    public EconomyResponse transfer(Picker picker) {
+        OfflinePlayer from = players[picker.next(accounts)];
+        OfflinePlayer to = players[picker.next(accounts)];
+        return target.transfer(from, to, 0.01);
+    }
+
+    @Benchmark
+    @Group("writeBehind")
+    @GroupThreads(3)
+    public EconomyResponse writeBehindDeposit(Picker picker) {
+        return target.depositPlayer(players[picker.next(accounts)], 0.01);
+    }
+
+    @Benchmark
+    @Group("writeBehind")
+    @GroupThreads(1)
+    public int writeBehindFlush() {
+        return target instanceof CachingEconomy caching ? caching.flush() : 0;
+    }
+}
@@ -0,0 +1,202 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.benchmarks;
+
+import net.milkbowl.vault.chat.Chat;
+import net.milkbowl.vault.permission.Permission;
+import org.bukkit.OfflinePlayer;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Chat provider keeping prefixes, suffixes and info nodes in maps.
+ * Player lookups fall back to the primary group of the player, like most chat plugins do.
+ */
+class MapChat extends Chat {
+
+    private final Permission permission;
+    private final Map<UUID, Map<String, Object>> playerInfo = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Object>> groupInfo = new ConcurrentHashMap<>();
+
+    MapChat(Permission permission) {
+        super(permission);
+        this.permission = permission;
+    }
+
+    private Object playerInfo(OfflinePlayer player, String node) {
+        Object value = playerInfo.getOrDefault(player.getUniqueId(), Map.of()).get(node);
+        if (value != null) {
+            return value;
+        }
+        String group = permission.getPrimaryGroup(null, player);
+        return group == null ? null : groupInfo.getOrDefault(group, Map.of()).get(node);
+    }
+
+    @Override
+    public String getName() {
+        return "MapChat";
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public String getPlayerPrefix(String world, OfflinePlayer player) {
+        return getPlayerInfoString(world, player, "prefix", "");
+    }
+
+    @Override
+    public void setPlayerPrefix(String world, OfflinePlayer player, String prefix) {
+        setPlayerInfoString(world, player, "prefix", prefix);
+    }
+
+    @Override
+    public String getGroupPrefix(String world, String group) {
+        return getGroupInfoString(world, group, "prefix", "");
+    }
+
+    @Override
+    public void setGroupPrefix(String world, String group, String prefix) {
+        setGroupInfoString(world, group, "prefix", prefix);
+    }
+
+    @Override
+    public String getPlayerSuffix(String world, OfflinePlayer player) {
+        return getPlayerInfoString(world, player, "suffix", "");
+    }
+
+    @Override
+    public void setPlayerSuffix(String world, OfflinePlayer player, String suffix) {
+        setPlayerInfoString(world, player, "suffix", suffix);
+    }
+
+    @Override
+    public String getGroupSuffix(String world, String group) {
+        return getGroupInfoString(world, group, "suffix", "");
+    }
+
+    @Override
+    public void setGroupSuffix(String world, String group, String suffix) {
+        setGroupInfoString(world, group, "suffix", suffix);
+    }
+
+    @Override
+    public int getPlayerInfoInteger(String world, OfflinePlayer player, String node, int defaultValue) {
+        Object value = playerInfo(player, node);
+        return value instanceof Integer typed ? typed : defaultValue;
+    }
+
+    @Override
+    public void setPlayerInfoInteger(String world, OfflinePlayer player, String node, int value) {
+        playerInfo.computeIfAbsent(player.getUniqueId(), uuid -> new ConcurrentHashMap<>()).put(node, value);
+    }
+
+    @Override
+    public int getGroupInfoInteger(String world, String group, String node, int defaultValue) {
+        Object value = groupInfo.getOrDefault(group, Map.of()).get(node);
+        return value instanceof Integer typed ? typed : defaultValue;
+    }
+
+    @Override
+    public void setGroupInfoInteger(String world, String group, String node, int value) {
+        groupInfo.computeIfAbsent(group, name -> new ConcurrentHashMap<>()).put(node, value);
+    }
+
+    @Override
+    public double getPlayerInfoDouble(String world, OfflinePlayer player, String node, double defaultValue) {
+        Object value = playerInfo(player, node);
+        return value instanceof Double typed ? typed : defaultValue;
+    }
+
+    @Override
+    public void setPlayerInfoDouble(String world, OfflinePlayer player, String node, double value) {
+        playerInfo.computeIfAbsent(player.getUniqueId(), uuid -> new ConcurrentHashMap<>()).put(node, value);
+    }
+
+    @Override
+    public double getGroupInfoDouble(String world, String group, String node, double defaultValue) {
+        Object value = groupInfo.getOrDefault(group, Map.of()).get(node);
+        return value instanceof Double typed ? typed : defaultValue;
+    }
+
+    @Override
+    public void setGroupInfoDouble(String world, String group, String node, double value) {
+        groupInfo.computeIfAbsent(group, name -> new ConcurrentHashMap<>()).put(node, value);
+    }
+
+    @Override
+    public boolean getPlayerInfoBoolean(String world, OfflinePlayer player, String node, boolean defaultValue) {
+        Object value = playerInfo(player, node);
+        return value instanceof Boolean typed ? typed : defaultValue;
+    }
+
+    @Override
+    public void setPlayerInfoBoolean(String world, OfflinePlayer player, String node, boolean value) {
+        playerInfo.computeIfAbsent(player.getUniqueId(), uuid -> new ConcurrentHashMap<>()).put(node, value);
+    }
+
+    @Override
+    public boolean getGroupInfoBoolean(String world, String group, String node, boolean defaultValue) {
+        Object value = groupInfo.getOrDefault(group, Map.of()).get(node);
+        return value instanceof Boolean typed ? typed : defaultValue;
+    }
+
+    @Override
+    public void setGroupInfoBoolean(String world, String group, String node, boolean value) {
+        groupInfo.computeIfAbsent(group, name -> new ConcurrentHashMap<>()).put(node, value);
+    }
+
+    @Override
+    public String getPlayerInfoString(String world, OfflinePlayer player, String node, String defaultValue) {
+        Object value = playerInfo(player, node);
+        return value instanceof String typed ? typed : defaultValue;
+    }
+
+    @Override
+    public void setPlayerInfoString(String world, OfflinePlayer player, String node, String value) {
+        playerInfo.computeIfAbsent(player.getUniqueId(), uuid -> new ConcurrentHashMap<>()).put(node, value);
+    }
+
+    @Override
+    public String getGroupInfoString(String world, String group, String node, String defaultValue) {
+        Object value = groupInfo.getOrDefault(group, Map.of()).get(node);
+        return value instanceof String typed ? typed : defaultValue;
+    }
+
+    @Override
+    public void setGroupInfoString(String world, String group, String node, String value) {
+        groupInfo.computeIfAbsent(group, name -> new ConcurrentHashMap<>()).put(node, value);
+    }
+
+    @Override
+    public boolean playerInGroup(String world, OfflinePlayer player, String group) {
+        return permission.playerInGroup(world, player, group);
+    }
+
+    @Override
+    public String[] getPlayerGroups(String world, OfflinePlayer player) {
+        return permission.getPlayerGroups(world, player);
+    }
+
+    @Override
+    public String getPrimaryGroup(String world, OfflinePlayer player) {
+        return permission.getPrimaryGroup(world, player);
+    }
+}
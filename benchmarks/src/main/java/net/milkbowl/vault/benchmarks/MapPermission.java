@@ -0,0 +1,171 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.benchmarks;
+
+import net.milkbowl.vault.permission.Permission;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.entity.Player;
+import org.bukkit.permissions.PermissionAttachment;
+import org.bukkit.permissions.PermissionAttachmentInfo;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Permission provider shaped like a typical group based plugin: players hold their own nodes and a list of groups,
+ * groups hold nodes and inherit from a parent group. Checks walk the player, then every group up the chain.
+ */
+class MapPermission extends Permission {
+
+    private final Map<UUID, Set<String>> playerNodes = new ConcurrentHashMap<>();
+    private final Map<UUID, List<String>> playerGroups = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> groupNodes = new ConcurrentHashMap<>();
+    private final Map<String, String> parents = new HashMap<>();
+
+    void addGroup(String group, String parent) {
+        groupNodes.computeIfAbsent(group, name -> ConcurrentHashMap.newKeySet());
+        if (parent != null) {
+            parents.put(group, parent);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "MapPermission";
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public boolean hasSuperPermsCompat() {
+        return false;
+    }
+
+    @Override
+    public boolean playerHas(String worldName, OfflinePlayer player, String permission) {
+        Set<String> nodes = playerNodes.get(player.getUniqueId());
+        if (nodes != null && nodes.contains(permission)) {
+            return true;
+        }
+        for (String group : playerGroups.getOrDefault(player.getUniqueId(), List.of())) {
+            if (groupHas(worldName, group, permission)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean playerAdd(String worldName, OfflinePlayer player, String permission) {
+        return playerNodes.computeIfAbsent(player.getUniqueId(), uuid -> ConcurrentHashMap.newKeySet()).add(permission);
+    }
+
+    @Override
+    public boolean playerRemove(String worldName, OfflinePlayer player, String permission) {
+        Set<String> nodes = playerNodes.get(player.getUniqueId());
+        return nodes != null && nodes.remove(permission);
+    }
+
+    @Override
+    public boolean groupHas(String world, String group, String permission) {
+        for (String current = group; current != null; current = parents.get(current)) {
+            Set<String> nodes = groupNodes.get(current);
+            if (nodes != null && nodes.contains(permission)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean groupAdd(String world, String group, String permission) {
+        Set<String> nodes = groupNodes.get(group);
+        return nodes != null && nodes.add(permission);
+    }
+
+    @Override
+    public boolean groupRemove(String world, String group, String permission) {
+        Set<String> nodes = groupNodes.get(group);
+        return nodes != null && nodes.remove(permission);
+    }
+
+    @Override
+    public boolean playerInGroup(String world, OfflinePlayer player, String group) {
+        return playerGroups.getOrDefault(player.getUniqueId(), List.of()).contains(group);
+    }
+
+    @Override
+    public boolean playerAddGroup(String world, OfflinePlayer player, String group) {
+        List<String> groups = playerGroups.computeIfAbsent(player.getUniqueId(), uuid -> new ArrayList<>());
+        return !groups.contains(group) && groups.add(group);
+    }
+
+    @Override
+    public boolean playerRemoveGroup(String world, OfflinePlayer player, String group) {
+        List<String> groups = playerGroups.get(player.getUniqueId());
+        return groups != null && groups.remove(group);
+    }
+
+    @Override
+    public String[] getPlayerGroups(String world, OfflinePlayer player) {
+        return playerGroups.getOrDefault(player.getUniqueId(), List.of()).toArray(new String[0]);
+    }
+
+    @Override
+    public String getPrimaryGroup(String world, OfflinePlayer player) {
+        List<String> groups = playerGroups.getOrDefault(player.getUniqueId(), List.of());
+        return groups.isEmpty() ? null : groups.get(0);
+    }
+
+    @Override
+    public String[] getGroups() {
+        return new HashSet<>(groupNodes.keySet()).toArray(new String[0]);
+    }
+
+    @Override
+    public boolean hasGroupSupport() {
+        return true;
+    }
+
+    @Override
+    public PermissionAttachment addAttachment(Player player, String permission, boolean value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public PermissionAttachment removeAttachment(Player player, PermissionAttachment attachment) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void playerRemoveAttachment(Player player, PermissionAttachment attachment) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public PermissionAttachmentInfo[] getEffectivePermissions(Player player) {
+        throw new UnsupportedOperationException();
+    }
+}
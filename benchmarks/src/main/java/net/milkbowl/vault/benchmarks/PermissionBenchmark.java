@@ -0,0 +1,110 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.benchmarks;
+
+import net.milkbowl.vault.metrics.InstrumentedPermission;
+import net.milkbowl.vault.metrics.ServiceMetrics;
+import net.milkbowl.vault.permission.Permission;
+import org.bukkit.OfflinePlayer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Permission#playerHas(String, OfflinePlayer, String)} against a node set shaped like a real server:
+ * a chain of four inheriting groups holding a few hundred nodes of common plugins, plus a few nodes per player.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@Threads(4)
+@State(Scope.Benchmark)
+public class PermissionBenchmark {
+
+    private static final String[] GROUPS = {"default", "member", "vip", "admin"};
+    private static final String[] PLUGINS = {"essentials", "worldedit", "worldguard", "luckperms", "coreprotect", "mcmmo", "shopkeepers", "multiverse"};
+    private static final String[] ACTIONS = {"use", "create", "delete", "list", "info", "teleport", "give", "set", "reload", "admin"};
+    private static final int PLAYERS = 256;
+
+    @Param({"map", "instrumented"})
+    public String permission;
+
+    private Permission target;
+    private OfflinePlayer[] players;
+    private String[] granted;
+    private String[] missing;
+
+    @Setup
+    public void setUp() {
+        MapPermission map = new MapPermission();
+        Random random = new Random(42);
+        List<String> grantedNodes = new ArrayList<>();
+        List<String> missingNodes = new ArrayList<>();
+        for (int g = 0; g < GROUPS.length; g++) {
+            map.addGroup(GROUPS[g], g == 0 ? null : GROUPS[g - 1]);
+            for (String plugin : PLUGINS) {
+                for (String action : ACTIONS) {
+                    String node = plugin + "." + action + "." + GROUPS[g] + "." + random.nextInt(1000);
+                    map.groupAdd(null, GROUPS[g], node);
+                    grantedNodes.add(node);
+                    missingNodes.add(node + ".other");
+                }
+            }
+        }
+        players = new OfflinePlayer[PLAYERS];
+        for (int i = 0; i < PLAYERS; i++) {
+            players[i] = Stubs.offlinePlayer(new UUID(random.nextLong(), random.nextLong()));
+            map.playerAddGroup(null, players[i], GROUPS[GROUPS.length - 1]);
+            for (int n = 0; n < 8; n++) {
+                map.playerAdd(null, players[i], "player." + i + ".node" + n);
+            }
+        }
+        granted = grantedNodes.toArray(new String[0]);
+        missing = missingNodes.toArray(new String[0]);
+        target = switch (permission) {
+            case "map" -> map;
+            case "instrumented" -> new InstrumentedPermission(map, new ServiceMetrics("MapPermission", false));
+            default -> throw new IllegalArgumentException(permission);
+        };
+    }
+
+    @Benchmark
+    public boolean playerHasGranted(Picker picker) {
+        return target.playerHas(null, players[picker.next(PLAYERS)], granted[picker.next(granted.length)]);
+    }
+
+    @Benchmark
+    public boolean playerHasMissing(Picker picker) {
+        return target.playerHas(null, players[picker.next(PLAYERS)], missing[picker.next(missing.length)]);
+    }
+}
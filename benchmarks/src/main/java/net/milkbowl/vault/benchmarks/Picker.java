@@ -0,0 +1,42 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.benchmarks;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.util.SplittableRandom;
+
+/**
+ * Per thread source of indexes shared by the benchmarks. Every thread is seeded from its index, so threads pick
+ * different sequences instead of hitting the same entries in lockstep, and runs still pick the same sequences.
+ */
+@State(Scope.Thread)
+public class Picker {
+
+    private SplittableRandom random;
+
+    @Setup
+    public void setUp(ThreadParams params) {
+        random = new SplittableRandom(7 + params.getThreadIndex());
+    }
+
+    int next(int bound) {
+        return bound == 1 ? 0 : random.nextInt(bound);
+    }
+}
@@ -0,0 +1,64 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.benchmarks;
+
+import org.bukkit.OfflinePlayer;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.lang.reflect.Proxy;
+import java.util.UUID;
+
+/**
+ * Stand-ins for the Bukkit types used by the benchmarks, answering only the identity methods the services call
+ */
+final class Stubs {
+
+    private Stubs() {
+    }
+
+    static OfflinePlayer offlinePlayer(UUID uuid) {
+        return proxy(OfflinePlayer.class, uuid, "player-" + uuid, null);
+    }
+
+    static Player player(UUID uuid, World world) {
+        return proxy(Player.class, uuid, "player-" + uuid, world);
+    }
+
+    static World world(String name) {
+        return (World) Proxy.newProxyInstance(Stubs.class.getClassLoader(), new Class<?>[]{World.class}, (proxy, method, args) -> switch (method.getName()) {
+            case "getName" -> name;
+            case "hashCode" -> name.hashCode();
+            case "equals" -> proxy == args[0];
+            case "toString" -> "World[" + name + "]";
+            default -> throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, UUID uuid, String name, World world) {
+        Object stub = Proxy.newProxyInstance(Stubs.class.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> switch (method.getName()) {
+            case "getUniqueId" -> uuid;
+            case "getName" -> name;
+            case "getWorld" -> world;
+            case "isOnline" -> world != null;
+            case "hashCode" -> uuid.hashCode();
+            case "equals" -> proxy == args[0];
+            case "toString" -> name;
+            default -> throw new UnsupportedOperationException(method.getName());
+        });
+        return type.cast(stub);
+    }
+}
@@ -15,11 +15,16 @@
 */
 package net.milkbowl.vault.chat;
 
+import net.milkbowl.vault.permission.GroupGraph;
+import net.milkbowl.vault.permission.GroupSet;
 import net.milkbowl.vault.permission.Permission;
+import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.World;
 import org.bukkit.entity.Player;
 
+import java.util.UUID;
+
 /**
  * The main Chat API - allows for Prefix/Suffix nodes along with generic Info nodes if the linked Chat system supports them
  */
@@ -66,6 +71,19 @@ public abstract class Chat {
         return getPlayerPrefix(player.getWorld().getName(), player);
     }
 
+    /**
+     * Get a players prefix by UUID in the given world.
+     * The default implementation resolves the player through {@link Bukkit#getOfflinePlayer(UUID)}, which may block
+     * on a profile lookup. Chat plugins keyed by UUID should override the UUID methods to skip the resolution.
+     *
+     * @param world  World name
+     * @param player UUID of the player
+     * @return Prefix
+     */
+    public String getPlayerPrefix(String world, UUID player) {
+        return getPlayerPrefix(world, Bukkit.getOfflinePlayer(player));
+    }
+
     /**
      * Sets players prefix in the given world.
      * Use NULL for world for setting in the Global scope.
@@ -105,6 +123,17 @@ public abstract class Chat {
         return getPlayerSuffix(player.getWorld().getName(), player);
     }
 
+    /**
+     * Get a players suffix by UUID in the given world.
+     *
+     * @param world  World name
+     * @param player UUID of the player
+     * @return Suffix
+     */
+    public String getPlayerSuffix(String world, UUID player) {
+        return getPlayerSuffix(world, Bukkit.getOfflinePlayer(player));
+    }
+
     /**
      * Set players suffix for the world specified
      *
@@ -227,6 +256,19 @@ public abstract class Chat {
         return getPlayerInfoInteger(player.getWorld().getName(), player, node, defaultValue);
     }
 
+    /**
+     * Get a players informational node (Integer) value by UUID
+     *
+     * @param world        World name
+     * @param player       UUID of the player
+     * @param node         Permission node
+     * @param defaultValue Default value
+     * @return Value
+     */
+    public int getPlayerInfoInteger(String world, UUID player, String node, int defaultValue) {
+        return getPlayerInfoInteger(world, Bukkit.getOfflinePlayer(player), node, defaultValue);
+    }
+
     /**
      * Set a players informational node (Integer) value
      *
@@ -317,6 +359,19 @@ public abstract class Chat {
         return getPlayerInfoDouble(player.getWorld().getName(), player, node, defaultValue);
     }
 
+    /**
+     * Get a players informational node (Double) value by UUID
+     *
+     * @param world        World name
+     * @param player       UUID of the player
+     * @param node         Permission node
+     * @param defaultValue Default value
+     * @return Value
+     */
+    public double getPlayerInfoDouble(String world, UUID player, String node, double defaultValue) {
+        return getPlayerInfoDouble(world, Bukkit.getOfflinePlayer(player), node, defaultValue);
+    }
+
     /**
      * Set a players informational node (Double) value
      *
@@ -407,6 +462,19 @@ public abstract class Chat {
         return getPlayerInfoBoolean(player.getWorld().getName(), player, node, defaultValue);
     }
 
+    /**
+     * Get a players informational node (Boolean) value by UUID
+     *
+     * @param world        World name
+     * @param player       UUID of the player
+     * @param node         Permission node
+     * @param defaultValue Default value
+     * @return Value
+     */
+    public boolean getPlayerInfoBoolean(String world, UUID player, String node, boolean defaultValue) {
+        return getPlayerInfoBoolean(world, Bukkit.getOfflinePlayer(player), node, defaultValue);
+    }
+
     /**
      * Set a players informational node (Boolean) value
      *
@@ -497,6 +565,19 @@ public abstract class Chat {
         return getPlayerInfoString(player.getWorld().getName(), player, node, defaultValue);
     }
 
+    /**
+     * Get a players informational node (String) value by UUID
+     *
+     * @param world        World name
+     * @param player       UUID of the player
+     * @param node         Permission node
+     * @param defaultValue Default value
+     * @return Value
+     */
+    public String getPlayerInfoString(String world, UUID player, String node, String defaultValue) {
+        return getPlayerInfoString(world, Bukkit.getOfflinePlayer(player), node, defaultValue);
+    }
+
     /**
      * Set a players informational node (String) value
      *
@@ -594,6 +675,20 @@ public abstract class Chat {
      */
     abstract public String[] getPlayerGroups(String world, OfflinePlayer player);
 
+    /**
+     * Gets the groups of a player as a read-only view.
+     * The default implementation wraps {@link #getPlayerGroups(String, OfflinePlayer)}, chat plugins backed by a
+     * {@link GroupGraph} can override this to return a precomputed closure.
+     *
+     * @param world  World name
+     * @param player OfflinePlayer
+     * @return GroupSet of the player's groups
+     */
+    public GroupSet getPlayerGroupSet(String world, OfflinePlayer player) {
+        String[] groups = getPlayerGroups(world, player);
+        return groups == null ? GroupSet.EMPTY : GroupSet.of(groups);
+    }
+
     /**
      * Gets the list of groups that this player has
      *
@@ -0,0 +1,197 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.milkbowl.vault.chat;
+
+import org.bukkit.OfflinePlayer;
+
+import java.util.Objects;
+
+/**
+ * Base class for {@link Chat} decorators.
+ * Every abstract Chat method and {@link #getGroups()} is forwarded to the wrapped chat. Other methods with an
+ * implementation in Chat are deliberately not forwarded, so that they are built on top of this decorator's own
+ * overrides.
+ */
+public abstract class ForwardingChat extends Chat {
+
+    protected final Chat delegate;
+
+    protected ForwardingChat(Chat delegate) {
+        // getGroups is the only method using the Permission of a Chat, it is forwarded instead
+        super(null);
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+    }
+
+    /**
+     * Gets the wrapped chat
+     *
+     * @return the wrapped Chat
+     */
+    public Chat getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return delegate.isEnabled();
+    }
+
+    @Override
+    public String getPlayerPrefix(String world, OfflinePlayer player) {
+        return delegate.getPlayerPrefix(world, player);
+    }
+
+    @Override
+    public void setPlayerPrefix(String world, OfflinePlayer player, String prefix) {
+        delegate.setPlayerPrefix(world, player, prefix);
+    }
+
+    @Override
+    public String getPlayerSuffix(String world, OfflinePlayer player) {
+        return delegate.getPlayerSuffix(world, player);
+    }
+
+    @Override
+    public void setPlayerSuffix(String world, OfflinePlayer player, String suffix) {
+        delegate.setPlayerSuffix(world, player, suffix);
+    }
+
+    @Override
+    public String getGroupPrefix(String world, String group) {
+        return delegate.getGroupPrefix(world, group);
+    }
+
+    @Override
+    public void setGroupPrefix(String world, String group, String prefix) {
+        delegate.setGroupPrefix(world, group, prefix);
+    }
+
+    @Override
+    public String getGroupSuffix(String world, String group) {
+        return delegate.getGroupSuffix(world, group);
+    }
+
+    @Override
+    public void setGroupSuffix(String world, String group, String suffix) {
+        delegate.setGroupSuffix(world, group, suffix);
+    }
+
+    @Override
+    public int getPlayerInfoInteger(String world, OfflinePlayer player, String node, int defaultValue) {
+        return delegate.getPlayerInfoInteger(world, player, node, defaultValue);
+    }
+
+    @Override
+    public void setPlayerInfoInteger(String world, OfflinePlayer player, String node, int value) {
+        delegate.setPlayerInfoInteger(world, player, node, value);
+    }
+
+    @Override
+    public int getGroupInfoInteger(String world, String group, String node, int defaultValue) {
+        return delegate.getGroupInfoInteger(world, group, node, defaultValue);
+    }
+
+    @Override
+    public void setGroupInfoInteger(String world, String group, String node, int value) {
+        delegate.setGroupInfoInteger(world, group, node, value);
+    }
+
+    @Override
+    public double getPlayerInfoDouble(String world, OfflinePlayer player, String node, double defaultValue) {
+        return delegate.getPlayerInfoDouble(world, player, node, defaultValue);
+    }
+
+    @Override
+    public void setPlayerInfoDouble(String world, OfflinePlayer player, String node, double value) {
+        delegate.setPlayerInfoDouble(world, player, node, value);
+    }
+
+    @Override
+    public double getGroupInfoDouble(String world, String group, String node, double defaultValue) {
+        return delegate.getGroupInfoDouble(world, group, node, defaultValue);
+    }
+
+    @Override
+    public void setGroupInfoDouble(String world, String group, String node, double value) {
+        delegate.setGroupInfoDouble(world, group, node, value);
+    }
+
+    @Override
+    public boolean getPlayerInfoBoolean(String world, OfflinePlayer player, String node, boolean defaultValue) {
+        return delegate.getPlayerInfoBoolean(world, player, node, defaultValue);
+    }
+
+    @Override
+    public void setPlayerInfoBoolean(String world, OfflinePlayer player, String node, boolean value) {
+        delegate.setPlayerInfoBoolean(world, player, node, value);
+    }
+
+    @Override
+    public boolean getGroupInfoBoolean(String world, String group, String node, boolean defaultValue) {
+        return delegate.getGroupInfoBoolean(world, group, node, defaultValue);
+    }
+
+    @Override
+    public void setGroupInfoBoolean(String world, String group, String node, boolean value) {
+        delegate.setGroupInfoBoolean(world, group, node, value);
+    }
+
+    @Override
+    public String getPlayerInfoString(String world, OfflinePlayer player, String node, String defaultValue) {
+        return delegate.getPlayerInfoString(world, player, node, defaultValue);
+    }
+
+    @Override
+    public void setPlayerInfoString(String world, OfflinePlayer player, String node, String value) {
+        delegate.setPlayerInfoString(world, player, node, value);
+    }
+
+    @Override
+    public String getGroupInfoString(String world, String group, String node, String defaultValue) {
+        return delegate.getGroupInfoString(world, group, node, defaultValue);
+    }
+
+    @Override
+    public void setGroupInfoString(String world, String group, String node, String value) {
+        delegate.setGroupInfoString(world, group, node, value);
+    }
+
+    @Override
+    public boolean playerInGroup(String world, OfflinePlayer player, String group) {
+        return delegate.playerInGroup(world, player, group);
+    }
+
+    @Override
+    public String[] getPlayerGroups(String world, OfflinePlayer player) {
+        return delegate.getPlayerGroups(world, player);
+    }
+
+    @Override
+    public String getPrimaryGroup(String world, OfflinePlayer player) {
+        return delegate.getPrimaryGroup(world, player);
+    }
+
+    @Override
+    public String[] getGroups() {
+        return delegate.getGroups();
+    }
+}
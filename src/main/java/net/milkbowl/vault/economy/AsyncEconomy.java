@@ -0,0 +1,309 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.milkbowl.vault.economy;
+
+import org.bukkit.OfflinePlayer;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous view of an {@link Economy}.
+ * Every operation that may reach the backing storage returns a {@link CompletableFuture} instead of blocking
+ * the calling thread. Obtain an instance through {@link Economy#async(java.util.concurrent.Executor)}.
+ * <p>
+ * Completion stages may run on a provider thread, never assume they run on the main server thread.
+ */
+public interface AsyncEconomy {
+
+    /**
+     * Gets the synchronous economy this view belongs to
+     *
+     * @return the backing Economy
+     */
+    Economy getEconomy();
+
+    /**
+     * Checks if this player has an account on the server yet
+     *
+     * @param player to check
+     * @return future completed with whether the player has an account
+     * @see Economy#hasAccount(OfflinePlayer)
+     */
+    CompletableFuture<Boolean> hasAccountAsync(OfflinePlayer player);
+
+    /**
+     * Checks if this player has an account on the server yet on the given world
+     *
+     * @param player    to check in the world
+     * @param worldName world-specific account
+     * @return future completed with whether the player has an account
+     * @see Economy#hasAccount(OfflinePlayer, String)
+     */
+    CompletableFuture<Boolean> hasAccountAsync(OfflinePlayer player, String worldName);
+
+    /**
+     * Gets balance of a player
+     *
+     * @param player of the player
+     * @return future completed with the amount currently held in players account
+     * @see Economy#getBalance(OfflinePlayer)
+     */
+    CompletableFuture<Double> getBalanceAsync(OfflinePlayer player);
+
+    /**
+     * Gets balance of a player on the specified world.
+     *
+     * @param player to check
+     * @param world  name of the world
+     * @return future completed with the amount currently held in players account
+     * @see Economy#getBalance(OfflinePlayer, String)
+     */
+    CompletableFuture<Double> getBalanceAsync(OfflinePlayer player, String world);
+
+    /**
+     * Gets the balances of many players at once.
+     *
+     * @param players to check
+     * @param world   name of the world, or null for the global balance
+     * @return future completed with the Balances in the iteration order of <b>players</b>
+     * @see Economy#getBalances(Collection, String)
+     */
+    CompletableFuture<Balances<OfflinePlayer>> getBalancesAsync(Collection<? extends OfflinePlayer> players, String world);
+
+    /**
+     * Checks if the player account has the amount - DO NOT USE NEGATIVE AMOUNTS
+     *
+     * @param player to check
+     * @param amount to check for
+     * @return future completed with True if <b>player</b> has <b>amount</b>, False else wise
+     * @see Economy#has(OfflinePlayer, double)
+     */
+    CompletableFuture<Boolean> hasAsync(OfflinePlayer player, double amount);
+
+    /**
+     * Checks if the player account has the amount in a given world - DO NOT USE NEGATIVE AMOUNTS
+     *
+     * @param player    to check
+     * @param worldName to check with
+     * @param amount    to check for
+     * @return future completed with True if <b>player</b> has <b>amount</b>, False else wise
+     * @see Economy#has(OfflinePlayer, String, double)
+     */
+    CompletableFuture<Boolean> hasAsync(OfflinePlayer player, String worldName, double amount);
+
+    /**
+     * Withdraw an amount from a player - DO NOT USE NEGATIVE AMOUNTS
+     *
+     * @param player to withdraw from
+     * @param amount Amount to withdraw
+     * @return future completed with the detailed response of transaction
+     * @see Economy#withdrawPlayer(OfflinePlayer, double)
+     */
+    CompletableFuture<EconomyResponse> withdrawPlayerAsync(OfflinePlayer player, double amount);
+
+    /**
+     * Withdraw an amount from a player on a given world - DO NOT USE NEGATIVE AMOUNTS
+     *
+     * @param player    to withdraw from
+     * @param worldName - name of the world
+     * @param amount    Amount to withdraw
+     * @return future completed with the detailed response of transaction
+     * @see Economy#withdrawPlayer(OfflinePlayer, String, double)
+     */
+    CompletableFuture<EconomyResponse> withdrawPlayerAsync(OfflinePlayer player, String worldName, double amount);
+
+    /**
+     * Deposit an amount to a player - DO NOT USE NEGATIVE AMOUNTS
+     *
+     * @param player to deposit to
+     * @param amount Amount to deposit
+     * @return future completed with the detailed response of transaction
+     * @see Economy#depositPlayer(OfflinePlayer, double)
+     */
+    CompletableFuture<EconomyResponse> depositPlayerAsync(OfflinePlayer player, double amount);
+
+    /**
+     * Deposit an amount to a player on a given world - DO NOT USE NEGATIVE AMOUNTS
+     *
+     * @param player    to deposit to
+     * @param worldName name of the world
+     * @param amount    Amount to deposit
+     * @return future completed with the detailed response of transaction
+     * @see Economy#depositPlayer(OfflinePlayer, String, double)
+     */
+    CompletableFuture<EconomyResponse> depositPlayerAsync(OfflinePlayer player, String worldName, double amount);
+
+    /**
+     * Transfer an amount from one player to another - DO NOT USE NEGATIVE AMOUNTS
+     *
+     * @param from   player to withdraw from
+     * @param to     player to deposit to
+     * @param amount Amount to transfer
+     * @return future completed with the detailed response of transaction
+     * @see Economy#transfer(OfflinePlayer, OfflinePlayer, double)
+     */
+    CompletableFuture<EconomyResponse> transferAsync(OfflinePlayer from, OfflinePlayer to, double amount);
+
+    /**
+     * Transfer an amount from one player to another on a given world - DO NOT USE NEGATIVE AMOUNTS
+     *
+     * @param from      player to withdraw from
+     * @param to        player to deposit to
+     * @param worldName name of the world, or null for the global accounts
+     * @param amount    Amount to transfer
+     * @return future completed with the detailed response of transaction
+     * @see Economy#transfer(OfflinePlayer, OfflinePlayer, String, double)
+     */
+    CompletableFuture<EconomyResponse> transferAsync(OfflinePlayer from, OfflinePlayer to, String worldName, double amount);
+
+    /**
+     * Transfer an amount from one bank account to another - DO NOT USE NEGATIVE AMOUNTS
+     *
+     * @param from   name of the account to withdraw from
+     * @param to     name of the account to deposit to
+     * @param amount Amount to transfer
+     * @return future completed with the EconomyResponse Object
+     * @see Economy#bankTransfer(String, String, double)
+     */
+    CompletableFuture<EconomyResponse> bankTransferAsync(String from, String to, double amount);
+
+    /**
+     * Creates a bank account with the specified name and the player as the owner
+     *
+     * @param name   of account
+     * @param player the account should be linked to
+     * @return future completed with the EconomyResponse Object
+     * @see Economy#createBank(String, OfflinePlayer)
+     */
+    CompletableFuture<EconomyResponse> createBankAsync(String name, OfflinePlayer player);
+
+    /**
+     * Deletes a bank account with the specified name.
+     *
+     * @param name of the back to delete
+     * @return future completed with the EconomyResponse Object
+     * @see Economy#deleteBank(String)
+     */
+    CompletableFuture<EconomyResponse> deleteBankAsync(String name);
+
+    /**
+     * Returns the amount the bank has
+     *
+     * @param name of the account
+     * @return future completed with the EconomyResponse Object
+     * @see Economy#bankBalance(String)
+     */
+    CompletableFuture<EconomyResponse> bankBalanceAsync(String name);
+
+    /**
+     * Returns true or false whether the bank has the amount specified - DO NOT USE NEGATIVE AMOUNTS
+     *
+     * @param name   of the account
+     * @param amount to check for
+     * @return future completed with the EconomyResponse Object
+     * @see Economy#bankHas(String, double)
+     */
+    CompletableFuture<EconomyResponse> bankHasAsync(String name, double amount);
+
+    /**
+     * Withdraw an amount from a bank account - DO NOT USE NEGATIVE AMOUNTS
+     *
+     * @param name   of the account
+     * @param amount to withdraw
+     * @return future completed with the EconomyResponse Object
+     * @see Economy#bankWithdraw(String, double)
+     */
+    CompletableFuture<EconomyResponse> bankWithdrawAsync(String name, double amount);
+
+    /**
+     * Deposit an amount into a bank account - DO NOT USE NEGATIVE AMOUNTS
+     *
+     * @param name   of the account
+     * @param amount to deposit
+     * @return future completed with the EconomyResponse Object
+     * @see Economy#bankDeposit(String, double)
+     */
+    CompletableFuture<EconomyResponse> bankDepositAsync(String name, double amount);
+
+    /**
+     * Check if a player is the owner of a bank account
+     *
+     * @param name   of the account
+     * @param player to check for ownership
+     * @return future completed with the EconomyResponse Object
+     * @see Economy#isBankOwner(String, OfflinePlayer)
+     */
+    CompletableFuture<EconomyResponse> isBankOwnerAsync(String name, OfflinePlayer player);
+
+    /**
+     * Check if the player is a member of the bank account
+     *
+     * @param name   of the account
+     * @param player to check membership
+     * @return future completed with the EconomyResponse Object
+     * @see Economy#isBankMember(String, OfflinePlayer)
+     */
+    CompletableFuture<EconomyResponse> isBankMemberAsync(String name, OfflinePlayer player);
+
+    /**
+     * Gets the list of banks
+     *
+     * @return future completed with the List of Banks
+     * @see Economy#getBanks()
+     */
+    CompletableFuture<List<String>> getBanksAsync();
+
+    /**
+     * Gets a page of the list of banks
+     *
+     * @param offset number of banks to skip
+     * @param limit  maximum number of banks to return
+     * @return future completed with the banks of the page
+     * @see Economy#getBanks(int, int)
+     */
+    CompletableFuture<List<String>> getBanksAsync(int offset, int limit);
+
+    /**
+     * Gets the balances of many banks at once
+     *
+     * @param names of the accounts
+     * @return future completed with the Balances in the iteration order of <b>names</b>
+     * @see Economy#bankBalances(Collection)
+     */
+    CompletableFuture<Balances<String>> bankBalancesAsync(Collection<String> names);
+
+    /**
+     * Attempts to create a player account for the given player
+     *
+     * @param player OfflinePlayer
+     * @return future completed with whether the account creation was successful
+     * @see Economy#createPlayerAccount(OfflinePlayer)
+     */
+    CompletableFuture<Boolean> createPlayerAccountAsync(OfflinePlayer player);
+
+    /**
+     * Attempts to create a player account for the given player on the specified world
+     *
+     * @param player    OfflinePlayer
+     * @param worldName String name of the world
+     * @return future completed with whether the account creation was successful
+     * @see Economy#createPlayerAccount(OfflinePlayer, String)
+     */
+    CompletableFuture<Boolean> createPlayerAccountAsync(OfflinePlayer player, String worldName);
+}
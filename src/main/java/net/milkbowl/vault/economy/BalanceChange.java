@@ -0,0 +1,62 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+import java.util.UUID;
+
+/**
+ * A successful balance change published by an {@link ObservableEconomy}
+ */
+public class BalanceChange {
+
+    /**
+     * Player of the account, null for bank accounts
+     */
+    public final UUID player;
+    /**
+     * World of a player account (null for the global account) or name of a bank account
+     */
+    public final String account;
+    /**
+     * Signed change of the balance, negative for withdrawals
+     */
+    public final double delta;
+    /**
+     * Balance of the account after the change
+     */
+    public final double balance;
+    /**
+     * Kind of transaction that caused the change
+     */
+    public final TransactionType cause;
+
+    /**
+     * Constructor for BalanceChange
+     *
+     * @param player  Player of the account, null for bank accounts
+     * @param account World of a player account or name of a bank account
+     * @param delta   Signed change of the balance
+     * @param balance Balance of the account after the change
+     * @param cause   Kind of transaction that caused the change
+     */
+    public BalanceChange(UUID player, String account, double delta, double balance, TransactionType cause) {
+        this.player = player;
+        this.account = account;
+        this.delta = delta;
+        this.balance = balance;
+        this.cause = cause;
+    }
+}
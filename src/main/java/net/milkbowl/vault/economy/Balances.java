@@ -0,0 +1,101 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.milkbowl.vault.economy;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Result of a bulk balance lookup.
+ * Balances are kept in a primitive array in the same order as the keys that were requested,
+ * so index {@code i} of {@link #getBalance(int)} belongs to index {@code i} of {@link #getKey(int)}.
+ *
+ * @param <K> type of the account key, e.g. OfflinePlayer
+ */
+public final class Balances<K> {
+
+    private final Object[] keys;
+    private final double[] balances;
+
+    /**
+     * Constructor for Balances
+     *
+     * @param keys     requested keys, in request order
+     * @param balances balance of each key, same order and length as <b>keys</b>. The array is not copied.
+     */
+    public Balances(Collection<? extends K> keys, double[] balances) {
+        this.keys = keys.toArray();
+        if (this.keys.length != balances.length) {
+            throw new IllegalArgumentException("Expected " + this.keys.length + " balances but got " + balances.length);
+        }
+        this.balances = balances;
+    }
+
+    /**
+     * Gets the number of balances in this result
+     *
+     * @return number of balances
+     */
+    public int size() {
+        return balances.length;
+    }
+
+    /**
+     * Gets the key at the given index
+     *
+     * @param index of the entry
+     * @return key of the entry
+     */
+    @SuppressWarnings("unchecked")
+    public K getKey(int index) {
+        return (K) keys[index];
+    }
+
+    /**
+     * Gets the balance at the given index
+     *
+     * @param index of the entry
+     * @return balance of the entry
+     */
+    public double getBalance(int index) {
+        return balances[index];
+    }
+
+    /**
+     * Finds the index of the given key
+     *
+     * @param key to look for
+     * @return index of the key or -1 if it was not part of the request
+     */
+    public int indexOf(K key) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Copies the balances into a new array
+     *
+     * @return copy of the balances, in request order
+     */
+    public double[] toArray() {
+        return Arrays.copyOf(balances, balances.length);
+    }
+}
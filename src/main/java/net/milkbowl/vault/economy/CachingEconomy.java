@@ -0,0 +1,494 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.milkbowl.vault.economy;
+
+import net.milkbowl.vault.economy.EconomyResponse.ResponseType;
+import org.bukkit.OfflinePlayer;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+/**
+ * Read-through, write-behind balance cache around another {@link Economy}.
+ * <p>
+ * Balances and account existence are cached per player and world. Deposits and withdrawals are applied to the cached
+ * balance immediately and queued, {@link #flush()} nets the queued changes of each account into a single call to the
+ * wrapped economy. The owner of the cache must call {@link #flush()} regularly, for example from an asynchronous
+ * repeating task, and once more on shutdown. A change the wrapped economy keeps rejecting is dropped after
+ * {@link #MAX_WRITE_ATTEMPTS} flushes and reported to {@link #onWriteDropped(OfflinePlayer, String, double, String)},
+ * and the account is reloaded.
+ * <p>
+ * Accounts are evicted least recently used first once the cache holds more than the maximum size, a tenth of the
+ * maximum size at a time, and cached values are reloaded once they are older than the expiry. Accounts with changes
+ * that have not been flushed are never evicted or reloaded. Bank operations are not cached.
+ */
+public class CachingEconomy extends ForwardingEconomy {
+
+    protected static final Logger log = Logger.getLogger("Minecraft");
+
+    /**
+     * Number of flushes a balance change is tried in before it is dropped
+     */
+    public static final int MAX_WRITE_ATTEMPTS = 5;
+
+    private final int maximumSize;
+    private final long expireAfterNanos;
+    private final ConcurrentHashMap<AccountKey, Entry> entries = new ConcurrentHashMap<>();
+    // the cached accounts of every player in any world, so invalidating a player does not scan the cache
+    private final ConcurrentHashMap<UUID, Set<Entry>> players = new ConcurrentHashMap<>();
+    private final Queue<Entry> dirty = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock evicting = new ReentrantLock();
+    private volatile int evictAbove;
+
+    /**
+     * Constructor for CachingEconomy
+     *
+     * @param delegate    Economy to cache
+     * @param maximumSize maximum number of cached accounts
+     * @param expireAfter time after which a cached value is reloaded
+     * @param unit        unit of <b>expireAfter</b>
+     */
+    public CachingEconomy(Economy delegate, int maximumSize, long expireAfter, TimeUnit unit) {
+        super(delegate);
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+        this.evictAbove = maximumSize;
+        this.expireAfterNanos = unit.toNanos(expireAfter);
+    }
+
+    @Override
+    public boolean hasAccount(OfflinePlayer player) {
+        return hasAccount(player, null);
+    }
+
+    @Override
+    public boolean hasAccount(OfflinePlayer player, String worldName) {
+        Entry entry = acquire(player, worldName);
+        try {
+            long now = System.nanoTime();
+            if (entry.hasAccount == null || entry.accountStale || now - entry.accountLoadedAt > expireAfterNanos) {
+                entry.hasAccount = worldName == null ? delegate.hasAccount(player) : delegate.hasAccount(player, worldName);
+                entry.accountLoadedAt = now;
+                entry.accountStale = false;
+            }
+            return entry.hasAccount;
+        } finally {
+            entry.lock.unlock();
+        }
+    }
+
+    @Override
+    public double getBalance(OfflinePlayer player) {
+        return getBalance(player, null);
+    }
+
+    @Override
+    public double getBalance(OfflinePlayer player, String world) {
+        Entry entry = acquire(player, world);
+        try {
+            loadBalance(entry);
+            return entry.balance;
+        } finally {
+            entry.lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean has(OfflinePlayer player, double amount) {
+        return getBalance(player, null) >= amount;
+    }
+
+    @Override
+    public boolean has(OfflinePlayer player, String worldName, double amount) {
+        return getBalance(player, worldName) >= amount;
+    }
+
+    @Override
+    public EconomyResponse withdrawPlayer(OfflinePlayer player, double amount) {
+        return withdrawPlayer(player, null, amount);
+    }
+
+    @Override
+    public EconomyResponse withdrawPlayer(OfflinePlayer player, String worldName, double amount) {
+        if (amount < 0) {
+            return new EconomyResponse(0, 0, ResponseType.FAILURE, "Cannot withdraw negative funds");
+        }
+        Entry entry = acquire(player, worldName);
+        try {
+            loadBalance(entry);
+            if (entry.balance < amount) {
+                return new EconomyResponse(0, entry.balance, ResponseType.FAILURE, "Insufficient funds");
+            }
+            apply(entry, -amount);
+            return new EconomyResponse(amount, entry.balance, ResponseType.SUCCESS, null);
+        } finally {
+            entry.lock.unlock();
+        }
+    }
+
+    @Override
+    public EconomyResponse depositPlayer(OfflinePlayer player, double amount) {
+        return depositPlayer(player, null, amount);
+    }
+
+    @Override
+    public EconomyResponse depositPlayer(OfflinePlayer player, String worldName, double amount) {
+        if (amount < 0) {
+            return new EconomyResponse(0, 0, ResponseType.FAILURE, "Cannot deposit negative funds");
+        }
+        Entry entry = acquire(player, worldName);
+        try {
+            loadBalance(entry);
+            apply(entry, amount);
+            return new EconomyResponse(amount, entry.balance, ResponseType.SUCCESS, null);
+        } finally {
+            entry.lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean createPlayerAccount(OfflinePlayer player) {
+        boolean created = delegate.createPlayerAccount(player);
+        invalidate(player.getUniqueId());
+        return created;
+    }
+
+    @Override
+    public boolean createPlayerAccount(OfflinePlayer player, String worldName) {
+        boolean created = delegate.createPlayerAccount(player, worldName);
+        invalidate(player.getUniqueId());
+        return created;
+    }
+
+    @Override
+    public EconomyResponse withdrawPlayer(String transactionId, OfflinePlayer player, String worldName, double amount) {
+        // deduplicated transactions bypass the write-behind queue, so the wrapped economy sees the id
+        EconomyResponse response = delegate.withdrawPlayer(transactionId, player, worldName, amount);
+        invalidate(player.getUniqueId());
+        return response;
+    }
+
+    @Override
+    public EconomyResponse depositPlayer(String transactionId, OfflinePlayer player, String worldName, double amount) {
+        EconomyResponse response = delegate.depositPlayer(transactionId, player, worldName, amount);
+        invalidate(player.getUniqueId());
+        return response;
+    }
+
+    /**
+     * Writes all queued balance changes to the wrapped economy, one call per account and world.
+     * Changes the wrapped economy rejects are logged and queued again, so the next flush retries them, up to
+     * {@link #MAX_WRITE_ATTEMPTS} flushes.
+     *
+     * @return number of accounts written
+     */
+    public int flush() {
+        int written = 0;
+        List<Entry> retry = new ArrayList<>();
+        List<DroppedWrite> dropped = new ArrayList<>();
+        Entry entry;
+        while ((entry = dirty.poll()) != null) {
+            double delta;
+            entry.lock.lock();
+            try {
+                entry.queued = false;
+                delta = entry.pending;
+                if (delta == 0) {
+                    continue;
+                }
+                entry.pending = 0;
+                entry.flushing++;
+            } finally {
+                entry.lock.unlock();
+            }
+            EconomyResponse response;
+            try {
+                response = write(entry, delta);
+            } catch (RuntimeException e) {
+                response = new EconomyResponse(0, 0, ResponseType.FAILURE, e.toString());
+            }
+            entry.lock.lock();
+            try {
+                entry.flushing--;
+                if (response.transactionSuccess()) {
+                    entry.failedWrites = 0;
+                    written++;
+                } else if (++entry.failedWrites >= MAX_WRITE_ATTEMPTS) {
+                    // the wrapped economy will not take it, stop serving a balance it never accepted
+                    entry.failedWrites = 0;
+                    entry.balance -= delta;
+                    entry.invalidate();
+                    dropped.add(new DroppedWrite(entry, delta, response.errorMessage));
+                } else {
+                    // callers were told the change succeeded, so keep it until the wrapped economy takes it
+                    entry.pending += delta;
+                    if (!entry.queued) {
+                        entry.queued = true;
+                        retry.add(entry);
+                    }
+                    log.warning(String.format("[%s] Could not write balance change of %s for %s: %s",
+                            getClass().getSimpleName(), delta, entry.player.getUniqueId(), response.errorMessage));
+                }
+            } finally {
+                entry.lock.unlock();
+            }
+        }
+        dirty.addAll(retry);
+        for (DroppedWrite write : dropped) {
+            onWriteDropped(write.entry.player, write.entry.world, write.delta, write.message);
+        }
+        return written;
+    }
+
+    /**
+     * Called after a flush for every balance change that was dropped because the wrapped economy rejected it
+     * {@link #MAX_WRITE_ATTEMPTS} times. The account has already been marked stale. Logs the change by default.
+     *
+     * @param player whose balance change was dropped
+     * @param world  of the account, or null for the global account
+     * @param delta  balance change that was dropped, negative for a withdrawal
+     * @param reason error message of the last rejection
+     */
+    protected void onWriteDropped(OfflinePlayer player, String world, double delta, String reason) {
+        log.severe(String.format("[%s] Dropped balance change of %s for %s after %d attempts: %s",
+                getClass().getSimpleName(), delta, player.getUniqueId(), MAX_WRITE_ATTEMPTS, reason));
+    }
+
+    /**
+     * Marks every cached account of the player as stale, so it is reloaded on its next access
+     *
+     * @param uuid of the player
+     */
+    public void invalidate(UUID uuid) {
+        Set<Entry> accounts = players.get(uuid);
+        if (accounts != null) {
+            for (Entry entry : accounts) {
+                entry.invalidate();
+            }
+        }
+    }
+
+    /**
+     * Marks every cached account as stale, so they are reloaded on their next access
+     */
+    public void invalidateAll() {
+        for (Entry entry : entries.values()) {
+            entry.invalidate();
+        }
+    }
+
+    /**
+     * Evicts cached accounts that are expired and have no pending changes
+     */
+    public void cleanUp() {
+        long now = System.nanoTime();
+        for (Entry entry : entries.values()) {
+            evict(entry, true, now);
+        }
+    }
+
+    /**
+     * Gets the number of cached accounts
+     *
+     * @return number of cached accounts
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private EconomyResponse write(Entry entry, double delta) {
+        if (delta > 0) {
+            return entry.world == null ? delegate.depositPlayer(entry.player, delta)
+                    : delegate.depositPlayer(entry.player, entry.world, delta);
+        }
+        return entry.world == null ? delegate.withdrawPlayer(entry.player, -delta)
+                : delegate.withdrawPlayer(entry.player, entry.world, -delta);
+    }
+
+    private void apply(Entry entry, double delta) {
+        entry.balance += delta;
+        entry.pending += delta;
+        if (!entry.queued) {
+            entry.queued = true;
+            dirty.add(entry);
+        }
+    }
+
+    private void loadBalance(Entry entry) {
+        if (entry.isDirty()) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (!entry.balanceLoaded || entry.balanceStale || now - entry.balanceLoadedAt > expireAfterNanos) {
+            entry.balance = entry.world == null ? delegate.getBalance(entry.player) : delegate.getBalance(entry.player, entry.world);
+            entry.balanceLoaded = true;
+            entry.balanceLoadedAt = now;
+            entry.balanceStale = false;
+        }
+    }
+
+    /**
+     * Gets the entry of the account, creating it if needed, and returns it locked
+     */
+    private Entry acquire(OfflinePlayer player, String world) {
+        AccountKey key = new AccountKey(player.getUniqueId(), world);
+        while (true) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                // indexed before it becomes visible, so evicting it always finds it in the index
+                entry = entries.computeIfAbsent(key, k -> index(new Entry(k, player, world)));
+                if (entries.size() > evictAbove) {
+                    evictLeastRecentlyUsed();
+                }
+            }
+            entry.lock.lock();
+            if (!entry.evicted) {
+                entry.lastAccess = System.nanoTime();
+                return entry;
+            }
+            entry.lock.unlock();
+        }
+    }
+
+    private Entry index(Entry entry) {
+        // added within compute, so a concurrent eviction can not drop the set in between
+        players.compute(entry.key.uuid(), (uuid, accounts) -> {
+            if (accounts == null) {
+                accounts = ConcurrentHashMap.newKeySet();
+            }
+            accounts.add(entry);
+            return accounts;
+        });
+        return entry;
+    }
+
+    /**
+     * Evicts the least recently used entries until a tenth of the maximum size is free, so the scan is not repeated
+     * for every new account. Only one thread evicts at a time, the others go on above the maximum size meanwhile.
+     * When entries with pending changes keep the cache above the maximum size, the next scan waits until another
+     * tenth of the maximum size was added.
+     */
+    private void evictLeastRecentlyUsed() {
+        if (!evicting.tryLock()) {
+            return;
+        }
+        try {
+            int excess = entries.size() - maximumSize + maximumSize / 10;
+            if (excess <= 0) {
+                evictAbove = maximumSize;
+                return;
+            }
+            // the access times are copied, as they change while sorting
+            List<Candidate> candidates = new ArrayList<>(entries.size());
+            for (Entry entry : entries.values()) {
+                candidates.add(new Candidate(entry, entry.lastAccess));
+            }
+            candidates.sort(Comparator.comparingLong(Candidate::lastAccess));
+            for (Candidate candidate : candidates) {
+                if (excess <= 0) {
+                    break;
+                }
+                if (evict(candidate.entry, false, 0)) {
+                    excess--;
+                }
+            }
+            evictAbove = Math.max(maximumSize, entries.size() + maximumSize / 10);
+        } finally {
+            evicting.unlock();
+        }
+    }
+
+    /**
+     * Evicts an entry unless it is in use or has pending changes
+     *
+     * @return true if the entry was evicted
+     */
+    private boolean evict(Entry entry, boolean expiredOnly, long now) {
+        if (!entry.lock.tryLock()) {
+            return false;
+        }
+        try {
+            if (entry.isDirty() || entry.evicted
+                    || expiredOnly && now - Math.max(entry.balanceLoadedAt, entry.accountLoadedAt) <= expireAfterNanos) {
+                return false;
+            }
+            entry.evicted = true;
+            entries.remove(entry.key, entry);
+            players.computeIfPresent(entry.key.uuid(), (uuid, accounts) -> {
+                accounts.remove(entry);
+                return accounts.isEmpty() ? null : accounts;
+            });
+            return true;
+        } finally {
+            entry.lock.unlock();
+        }
+    }
+
+    private record Candidate(Entry entry, long lastAccess) {
+    }
+
+    private record DroppedWrite(Entry entry, double delta, String message) {
+    }
+
+    private static final class Entry {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final AccountKey key;
+        private final OfflinePlayer player;
+        private final String world;
+        private double balance;
+        private boolean balanceLoaded;
+        private long balanceLoadedAt;
+        private Boolean hasAccount;
+        private long accountLoadedAt;
+        private double pending;
+        private int flushing;
+        private boolean queued;
+        private int failedWrites;
+        private boolean evicted;
+        private volatile long lastAccess;
+        private volatile boolean balanceStale;
+        private volatile boolean accountStale;
+
+        private Entry(AccountKey key, OfflinePlayer player, String world) {
+            this.key = key;
+            this.lastAccess = System.nanoTime();
+            this.player = player;
+            this.world = world;
+        }
+
+        private void invalidate() {
+            balanceStale = true;
+            accountStale = true;
+        }
+
+        private boolean isDirty() {
+            return pending != 0 || flushing > 0;
+        }
+    }
+}
@@ -0,0 +1,275 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.milkbowl.vault.economy;
+
+import net.milkbowl.vault.economy.EconomyResponse.ResponseType;
+import org.bukkit.OfflinePlayer;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Batches many small balance changes into one write per account.
+ * <p>
+ * {@link #queueDeposit(OfflinePlayer, String, double)} and {@link #queueWithdraw(OfflinePlayer, String, double)}
+ * only record the change, changes of the same account and world are netted and written to the wrapped economy as a
+ * single deposit or withdrawal on the next {@link #flush()}, which the owner should call once per flush interval.
+ * Balance reads include the queued changes.
+ * <p>
+ * The regular {@link #depositPlayer(OfflinePlayer, String, double)} and
+ * {@link #withdrawPlayer(OfflinePlayer, String, double)} bypass the queue and return the synchronous response of the
+ * wrapped economy, folding the account's queued changes into the same write. Queued withdrawals are not checked
+ * against the balance until they are flushed. When the netted write is rejected the queued deposits and withdrawals
+ * are written separately, so a rejected withdrawal cannot discard deposits. Rejected changes are logged, counted in
+ * {@link #getFailedWrites()} and kept queued for the next flush.
+ */
+public class CoalescingEconomy extends ForwardingEconomy {
+
+    protected static final Logger log = Logger.getLogger("Minecraft");
+
+    private final int digits;
+    private final ConcurrentHashMap<AccountKey, Pending> pending = new ConcurrentHashMap<>();
+    private final LongAdder failedWrites = new LongAdder();
+
+    /**
+     * Constructor for CoalescingEconomy
+     *
+     * @param delegate Economy to write the netted changes to
+     */
+    public CoalescingEconomy(Economy delegate) {
+        super(delegate);
+        this.digits = delegate.minorUnitDigits();
+    }
+
+    /**
+     * Queues a deposit - DO NOT USE NEGATIVE AMOUNTS
+     *
+     * @param player    to deposit to
+     * @param worldName name of the world, or null for the global account
+     * @param amount    Amount to deposit
+     */
+    public void queueDeposit(OfflinePlayer player, String worldName, double amount) {
+        if (amount < 0) {
+            throw new IllegalArgumentException("Cannot deposit negative funds: " + amount);
+        }
+        queue(player, worldName, MinorUnits.toMinor(amount, digits), 0);
+    }
+
+    /**
+     * Queues a withdrawal - DO NOT USE NEGATIVE AMOUNTS
+     *
+     * @param player    to withdraw from
+     * @param worldName name of the world, or null for the global account
+     * @param amount    Amount to withdraw
+     */
+    public void queueWithdraw(OfflinePlayer player, String worldName, double amount) {
+        if (amount < 0) {
+            throw new IllegalArgumentException("Cannot withdraw negative funds: " + amount);
+        }
+        queue(player, worldName, 0, MinorUnits.toMinor(amount, digits));
+    }
+
+    /**
+     * Writes the netted queued changes of every account to the wrapped economy.
+     * Changes the wrapped economy rejects stay queued for the next flush.
+     *
+     * @return number of accounts written completely
+     */
+    public int flush() {
+        int written = 0;
+        for (AccountKey key : pending.keySet()) {
+            Pending changes = pending.remove(key);
+            if (changes == null || changes.credits == changes.debits) {
+                continue;
+            }
+            if (flush(key, changes)) {
+                written++;
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Gets the number of accounts with queued changes
+     *
+     * @return number of accounts waiting for the next flush
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Gets the number of flushed changes the wrapped economy rejected
+     *
+     * @return number of rejected writes
+     */
+    public long getFailedWrites() {
+        return failedWrites.sum();
+    }
+
+    @Override
+    public double getBalance(OfflinePlayer player) {
+        return delegate.getBalance(player) + queued(player, null);
+    }
+
+    @Override
+    public double getBalance(OfflinePlayer player, String world) {
+        return delegate.getBalance(player, world) + queued(player, world);
+    }
+
+    @Override
+    public boolean has(OfflinePlayer player, double amount) {
+        return getBalance(player) >= amount;
+    }
+
+    @Override
+    public boolean has(OfflinePlayer player, String worldName, double amount) {
+        return getBalance(player, worldName) >= amount;
+    }
+
+    @Override
+    public EconomyResponse withdrawPlayer(OfflinePlayer player, double amount) {
+        return withdrawPlayer(player, null, amount);
+    }
+
+    @Override
+    public EconomyResponse withdrawPlayer(OfflinePlayer player, String worldName, double amount) {
+        if (amount < 0) {
+            return new EconomyResponse(0, 0, ResponseType.FAILURE, "Cannot withdraw negative funds");
+        }
+        return writeThrough(player, worldName, -amount);
+    }
+
+    @Override
+    public EconomyResponse depositPlayer(OfflinePlayer player, double amount) {
+        return depositPlayer(player, null, amount);
+    }
+
+    @Override
+    public EconomyResponse depositPlayer(OfflinePlayer player, String worldName, double amount) {
+        if (amount < 0) {
+            return new EconomyResponse(0, 0, ResponseType.FAILURE, "Cannot deposit negative funds");
+        }
+        return writeThrough(player, worldName, amount);
+    }
+
+    private void queue(OfflinePlayer player, String world, long credits, long debits) {
+        pending.compute(new AccountKey(player.getUniqueId(), world), (key, changes) -> {
+            if (changes == null) {
+                changes = new Pending(player);
+            }
+            changes.credits += credits;
+            changes.debits += debits;
+            return changes;
+        });
+    }
+
+    private double queued(OfflinePlayer player, String world) {
+        Pending changes = pending.get(new AccountKey(player.getUniqueId(), world));
+        return changes == null ? 0 : MinorUnits.toMajor(changes.credits - changes.debits, digits);
+    }
+
+    /**
+     * Writes the queued changes of an account that were removed from the queue, putting back what could not be written
+     *
+     * @return true if every change was written
+     */
+    private boolean flush(AccountKey key, Pending changes) {
+        OfflinePlayer player = changes.player;
+        if (tryWrite(player, key.world(), changes.credits - changes.debits)) {
+            return true;
+        }
+        if (changes.credits == 0 || changes.debits == 0) {
+            queue(player, key.world(), changes.credits, changes.debits);
+            return false;
+        }
+        // the netted write was rejected, write the deposits on their own so a rejected withdrawal cannot discard them
+        if (!tryWrite(player, key.world(), changes.credits)) {
+            queue(player, key.world(), changes.credits, changes.debits);
+            return false;
+        }
+        if (!tryWrite(player, key.world(), -changes.debits)) {
+            queue(player, key.world(), 0, changes.debits);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Writes a signed amount in minor units, logging and counting a rejected or failed write
+     */
+    private boolean tryWrite(OfflinePlayer player, String world, long minor) {
+        double amount = MinorUnits.toMajor(minor, digits);
+        String error;
+        try {
+            EconomyResponse response = write(player, world, amount);
+            if (response.transactionSuccess()) {
+                return true;
+            }
+            error = response.errorMessage;
+        } catch (RuntimeException e) {
+            error = e.toString();
+        }
+        failedWrites.increment();
+        log.warning(String.format("[%s] Could not write queued balance change of %s for %s: %s",
+                getClass().getSimpleName(), amount, player.getUniqueId(), error));
+        return false;
+    }
+
+    /**
+     * Writes a signed amount together with the queued changes of the account. If the combined write is rejected the
+     * queued changes are put back and the amount is written on its own, so the caller gets the response it would
+     * have gotten without the queue.
+     */
+    private EconomyResponse writeThrough(OfflinePlayer player, String world, double amount) {
+        AccountKey key = new AccountKey(player.getUniqueId(), world);
+        Pending changes = pending.remove(key);
+        if (changes != null && changes.credits != changes.debits) {
+            EconomyResponse response;
+            try {
+                response = write(player, world, amount + MinorUnits.toMajor(changes.credits - changes.debits, digits));
+            } catch (RuntimeException e) {
+                queue(player, world, changes.credits, changes.debits);
+                throw e;
+            }
+            if (response.transactionSuccess()) {
+                return new EconomyResponse(Math.abs(amount), response.balance, ResponseType.SUCCESS, null);
+            }
+            queue(player, world, changes.credits, changes.debits);
+        }
+        return write(player, world, amount);
+    }
+
+    private EconomyResponse write(OfflinePlayer player, String world, double amount) {
+        if (amount >= 0) {
+            return world == null ? delegate.depositPlayer(player, amount) : delegate.depositPlayer(player, world, amount);
+        }
+        return world == null ? delegate.withdrawPlayer(player, -amount) : delegate.withdrawPlayer(player, world, -amount);
+    }
+
+    private static final class Pending {
+
+        private final OfflinePlayer player;
+        private volatile long credits;
+        private volatile long debits;
+
+        private Pending(OfflinePlayer player) {
+            this.player = player;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.milkbowl.vault.economy;
+
+/**
+ * A currency of a {@link MultiCurrencyEconomy}, addressed by the compact id it was given by its {@link CurrencyRegistry}
+ */
+public final class Currency {
+
+    /**
+     * Id of the currency, its index in the registry starting at 0
+     */
+    public final int id;
+    /**
+     * Unique name of the currency, such as {@code gems}
+     */
+    public final String name;
+    /**
+     * Name of the currency in singular form
+     */
+    public final String currencyNameSingular;
+    /**
+     * Name of the currency in plural form
+     */
+    public final String currencyNamePlural;
+    /**
+     * Number of digits after the decimal point kept, or -1 if amounts are not rounded
+     */
+    public final int fractionalDigits;
+    private final CurrencyFormatter formatter;
+
+    Currency(int id, String name, int fractionalDigits, String currencyNameSingular, String currencyNamePlural) {
+        this.id = id;
+        this.name = name;
+        this.fractionalDigits = fractionalDigits;
+        this.currencyNameSingular = currencyNameSingular;
+        this.currencyNamePlural = currencyNamePlural;
+        this.formatter = new CurrencyFormatter(minorUnitDigits(), currencyNameSingular, currencyNamePlural, 64);
+    }
+
+    /**
+     * Gets the number of digits balances of this currency are stored with
+     *
+     * @return number of minor unit digits
+     */
+    public int minorUnitDigits() {
+        return MinorUnits.digitsFor(fractionalDigits);
+    }
+
+    /**
+     * Gets a formatter for amounts of this currency
+     *
+     * @return CurrencyFormatter of this currency
+     */
+    public CurrencyFormatter formatter() {
+        return formatter;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,163 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.milkbowl.vault.economy;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Formats amounts as {@code 1,234.50 Dollars} without querying the economy on every call.
+ * <p>
+ * The number of digits and the currency names are read once when the formatter is created.
+ * {@link #formatTo(double, Appendable)} writes straight into the caller's buffer without allocating,
+ * {@link #format(double)} keeps a small cache of recently formatted amounts so repeated values return the same String.
+ * Instances are safe for concurrent use. The output follows this formatter's fixed style, which may differ from
+ * {@link Economy#format(double)} of the economy plugin.
+ */
+public class CurrencyFormatter {
+
+    private final int digits;
+    private final long scale;
+    private final String currencyNameSingular;
+    private final String currencyNamePlural;
+    private final Cached[] cache;
+    private final int mask;
+
+    /**
+     * Creates a formatter using the digits and currency names of an economy
+     *
+     * @param economy   to read the digits and currency names from
+     * @param cacheSize number of cached amounts, rounded up to a power of two
+     */
+    public CurrencyFormatter(Economy economy, int cacheSize) {
+        this(economy.minorUnitDigits(), economy.currencyNameSingular(), economy.currencyNamePlural(), cacheSize);
+    }
+
+    /**
+     * Constructor for CurrencyFormatter
+     *
+     * @param digits               number of digits after the decimal point
+     * @param currencyNameSingular name of the currency in singular form, empty for none
+     * @param currencyNamePlural   name of the currency in plural form, empty for none
+     * @param cacheSize            number of cached amounts, rounded up to a power of two
+     */
+    public CurrencyFormatter(int digits, String currencyNameSingular, String currencyNamePlural, int cacheSize) {
+        if (cacheSize < 1 || cacheSize > 1 << 20) {
+            throw new IllegalArgumentException("cacheSize must be between 1 and " + (1 << 20) + ": " + cacheSize);
+        }
+        this.digits = digits;
+        this.scale = MinorUnits.scale(digits);
+        this.currencyNameSingular = currencyNameSingular == null ? "" : currencyNameSingular;
+        this.currencyNamePlural = currencyNamePlural == null ? "" : currencyNamePlural;
+        int size = cacheSize == 1 ? 1 : Integer.highestOneBit(cacheSize - 1) << 1;
+        this.cache = new Cached[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Formats an amount, returning a cached String when the amount was formatted recently
+     *
+     * @param amount to format
+     * @return formatted amount
+     */
+    public String format(double amount) {
+        long minor = MinorUnits.toMinor(amount, digits);
+        int slot = (int) (minor ^ minor >>> 32) * 0x9E3779B9 & mask;
+        Cached cached = cache[slot];
+        if (cached != null && cached.minor == minor) {
+            return cached.text;
+        }
+        StringBuilder builder = new StringBuilder(24);
+        write(minor, builder);
+        String text = builder.toString();
+        cache[slot] = new Cached(minor, text);
+        return text;
+    }
+
+    /**
+     * Appends a formatted amount to a StringBuilder
+     *
+     * @param amount to format
+     * @param out    to append to
+     * @return <b>out</b>
+     */
+    public StringBuilder formatTo(double amount, StringBuilder out) {
+        write(MinorUnits.toMinor(amount, digits), out);
+        return out;
+    }
+
+    /**
+     * Appends a formatted amount to an Appendable
+     *
+     * @param amount to format
+     * @param out    to append to
+     * @throws IOException if <b>out</b> fails to append
+     */
+    public void formatTo(double amount, Appendable out) throws IOException {
+        writeTo(MinorUnits.toMinor(amount, digits), out);
+    }
+
+    private void write(long minor, StringBuilder out) {
+        try {
+            writeTo(minor, out);
+        } catch (IOException e) {
+            // StringBuilder never throws
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeTo(long minor, Appendable out) throws IOException {
+        // work with non-positive values so that Long.MIN_VALUE does not overflow
+        long negative = minor > 0 ? -minor : minor;
+        if (minor < 0) {
+            out.append('-');
+        }
+        long integer = negative / scale;
+        long fraction = negative % scale;
+        int length = 1;
+        while (length < 19 && integer <= -MinorUnits.scale(length)) {
+            length++;
+        }
+        for (int i = length - 1; i >= 0; i--) {
+            out.append((char) ('0' - integer / MinorUnits.scale(i) % 10));
+            if (i > 0 && i % 3 == 0) {
+                out.append(',');
+            }
+        }
+        if (digits > 0) {
+            out.append('.');
+            for (int i = digits - 1; i >= 0; i--) {
+                out.append((char) ('0' - fraction / MinorUnits.scale(i) % 10));
+            }
+        }
+        String name = minor == scale ? currencyNameSingular : currencyNamePlural;
+        if (!name.isEmpty()) {
+            out.append(' ').append(name);
+        }
+    }
+
+    private static final class Cached {
+
+        private final long minor;
+        private final String text;
+
+        private Cached(long minor, String text) {
+            this.minor = minor;
+            this.text = text;
+        }
+    }
+}
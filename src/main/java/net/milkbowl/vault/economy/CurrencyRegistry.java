@@ -0,0 +1,139 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.milkbowl.vault.economy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The currencies of a {@link MultiCurrencyEconomy}.
+ * <p>
+ * Every currency is registered once and given the next free id, so ids are dense, start at 0 and never change.
+ * Economies can keep the balances of an account in an array indexed by currency id. The capacity is fixed when the
+ * registry is created, so those arrays never have to grow. Safe for concurrent use.
+ */
+public class CurrencyRegistry {
+
+    private final Currency[] currencies;
+    private final ConcurrentHashMap<String, Currency> byName = new ConcurrentHashMap<>();
+    private volatile int size;
+
+    /**
+     * Constructor for CurrencyRegistry
+     *
+     * @param capacity maximum number of currencies
+     */
+    public CurrencyRegistry(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.currencies = new Currency[capacity];
+    }
+
+    /**
+     * Registers a currency
+     *
+     * @param name                 unique name of the currency, compared ignoring case
+     * @param fractionalDigits     number of digits after the decimal point kept, or -1 to use the default
+     * @param currencyNameSingular name of the currency in singular form
+     * @param currencyNamePlural   name of the currency in plural form
+     * @return the registered Currency
+     * @throws IllegalArgumentException if the name is null or empty, or a currency of that name is already registered
+     * @throws IllegalStateException    if the registry is full
+     */
+    public synchronized Currency register(String name, int fractionalDigits, String currencyNameSingular, String currencyNamePlural) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Currency name must not be empty");
+        }
+        String key = name.toLowerCase(Locale.ROOT);
+        if (byName.containsKey(key)) {
+            throw new IllegalArgumentException("Currency is already registered: " + name);
+        }
+        if (size == currencies.length) {
+            throw new IllegalStateException("Cannot register more than " + currencies.length + " currencies");
+        }
+        Currency currency = new Currency(size, name, fractionalDigits, currencyNameSingular, currencyNamePlural);
+        currencies[size] = currency;
+        byName.put(key, currency);
+        size++;
+        return currency;
+    }
+
+    /**
+     * Gets a currency by id
+     *
+     * @param id of the currency
+     * @return the Currency, or null if no currency has that id
+     */
+    public Currency get(int id) {
+        return id >= 0 && id < size ? currencies[id] : null;
+    }
+
+    /**
+     * Gets a currency by name
+     *
+     * @param name of the currency, compared ignoring case
+     * @return the Currency, or null if no currency has that name
+     */
+    public Currency get(String name) {
+        return byName.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Checks if a currency was registered with this registry
+     *
+     * @param currency to check
+     * @return true if the currency belongs to this registry
+     */
+    public boolean contains(Currency currency) {
+        return get(currency.id) == currency;
+    }
+
+    /**
+     * Gets the number of registered currencies
+     *
+     * @return number of currencies, one more than the largest id
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the maximum number of currencies
+     *
+     * @return capacity of the registry
+     */
+    public int capacity() {
+        return currencies.length;
+    }
+
+    /**
+     * Gets every registered currency
+     *
+     * @return the currencies ordered by id
+     */
+    public List<Currency> getCurrencies() {
+        int count = size;
+        List<Currency> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            list.add(currencies[i]);
+        }
+        return list;
+    }
+}
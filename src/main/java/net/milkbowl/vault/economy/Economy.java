@@ -16,9 +16,19 @@
 
 package net.milkbowl.vault.economy;
 
+import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * The main economy API
@@ -55,6 +65,16 @@ public interface Economy {
      */
     int fractionalDigits();
 
+    /**
+     * Gets the number of digits used by the minor unit methods such as {@link #getBalanceMinor(OfflinePlayer)}.
+     * Derived from {@link #fractionalDigits()}, see {@link MinorUnits#digitsFor(int)}.
+     *
+     * @return number of minor unit digits
+     */
+    default int minorUnitDigits() {
+        return MinorUnits.digitsFor(fractionalDigits());
+    }
+
     /**
      * Format amount into a human readable String This provides translation into
      * economy specific formatting to improve consistency between plugins.
@@ -64,6 +84,16 @@ public interface Economy {
      */
     String format(double amount);
 
+    /**
+     * Creates a formatter that formats amounts into caller supplied buffers, see {@link CurrencyFormatter}.
+     * The formatter reads the digits and currency names once, so callers should create it once and keep it.
+     *
+     * @return CurrencyFormatter for this economy
+     */
+    default CurrencyFormatter formatter() {
+        return new CurrencyFormatter(this, 256);
+    }
+
     /**
      * Returns the name of the currency in plural form.
      * If the economy being used does not support currency names then an empty string will be returned.
@@ -120,6 +150,81 @@ public interface Economy {
      */
     double getBalance(OfflinePlayer player, String world);
 
+    /**
+     * Gets balance of a player by UUID.
+     * The default implementation resolves the player through {@link Bukkit#getOfflinePlayer(UUID)}, which may block
+     * on a profile lookup. Economy plugins keyed by UUID should override the UUID methods to skip the resolution.
+     *
+     * @param player UUID of the player
+     * @return Amount currently held in players account
+     */
+    default double getBalance(UUID player) {
+        return getBalance(Bukkit.getOfflinePlayer(player));
+    }
+
+    /**
+     * Gets balance of a player by UUID on the specified world.
+     *
+     * @param player UUID of the player
+     * @param world  name of the world
+     * @return Amount currently held in players account
+     */
+    default double getBalance(UUID player, String world) {
+        return getBalance(Bukkit.getOfflinePlayer(player), world);
+    }
+
+    /**
+     * Checks which of many players have an account.
+     * The default implementation calls {@link #hasAccount(OfflinePlayer, String)} for every player,
+     * economy plugins backed by a database should override this to answer with a single query.
+     *
+     * @param players to check
+     * @param world   name of the world, or null for the global account
+     * @return BitSet with bit <i>i</i> set if the <i>i</i>-th player in the iteration order of <b>players</b> has an account
+     */
+    default BitSet hasAccounts(Collection<? extends OfflinePlayer> players, String world) {
+        BitSet accounts = new BitSet(players.size());
+        int i = 0;
+        for (OfflinePlayer player : players) {
+            if (world == null ? hasAccount(player) : hasAccount(player, world)) {
+                accounts.set(i);
+            }
+            i++;
+        }
+        return accounts;
+    }
+
+    /**
+     * Gets the balances of many players at once.
+     * The default implementation calls {@link #getBalance(OfflinePlayer, String)} for every player,
+     * economy plugins backed by a database should override this to answer with a single query.
+     *
+     * @param players to check
+     * @param world   name of the world, or null for the global balance
+     * @return Balances in the iteration order of <b>players</b>
+     */
+    default Balances<OfflinePlayer> getBalances(Collection<? extends OfflinePlayer> players, String world) {
+        double[] balances = new double[players.size()];
+        int i = 0;
+        for (OfflinePlayer player : players) {
+            balances[i++] = world == null ? getBalance(player) : getBalance(player, world);
+        }
+        return new Balances<>(players, balances);
+    }
+
+    /**
+     * Gets the players of the server ranked by balance.
+     * The default implementation builds a new index from the balances of every player that has joined the server,
+     * which is slow on large servers. Economy plugins should override this to return an index they keep up to date,
+     * or wrap the economy in a {@link RankedEconomy}.
+     *
+     * @param world name of the world, or null for the global balances
+     * @return Leaderboard of the balances
+     */
+    default Leaderboard getLeaderboard(String world) {
+        return LeaderboardIndex.scan(this, Arrays.asList(Bukkit.getOfflinePlayers()), world);
+    }
+
     /**
      * Checks if the player account has the amount - DO NOT USE NEGATIVE AMOUNTS
      *
@@ -140,6 +245,29 @@ public interface Economy {
      */
     boolean has(OfflinePlayer player, String worldName, double amount);
 
+    /**
+     * Checks if the account of a player by UUID has the amount - DO NOT USE NEGATIVE AMOUNTS
+     *
+     * @param player UUID of the player
+     * @param amount to check for
+     * @return True if <b>player</b> has <b>amount</b>, False else wise
+     */
+    default boolean has(UUID player, double amount) {
+        return has(Bukkit.getOfflinePlayer(player), amount);
+    }
+
+    /**
+     * Checks if the account of a player by UUID has the amount in a given world - DO NOT USE NEGATIVE AMOUNTS
+     *
+     * @param player    UUID of the player
+     * @param worldName to check with
+     * @param amount    to check for
+     * @return True if <b>player</b> has <b>amount</b>, False else wise
+     */
+    default boolean has(UUID player, String worldName, double amount) {
+        return has(Bukkit.getOfflinePlayer(player), worldName, amount);
+    }
+
     /**
      * Withdraw an amount from a player - DO NOT USE NEGATIVE AMOUNTS
      *
@@ -180,6 +308,255 @@ public interface Economy {
      */
     EconomyResponse depositPlayer(OfflinePlayer player, String worldName, double amount);
 
+    /**
+     * Withdraw an amount from a player by UUID - DO NOT USE NEGATIVE AMOUNTS
+     *
+     * @param player UUID of the player
+     * @param amount Amount to withdraw
+     * @return Detailed response of transaction
+     */
+    default EconomyResponse withdrawPlayer(UUID player, double amount) {
+        return withdrawPlayer(Bukkit.getOfflinePlayer(player), amount);
+    }
+
+    /**
+     * Withdraw an amount from a player by UUID on a given world - DO NOT USE NEGATIVE AMOUNTS
+     *
+     * @param player    UUID of the player
+     * @param worldName name of the world
+     * @param amount    Amount to withdraw
+     * @return Detailed response of transaction
+     */
+    default EconomyResponse withdrawPlayer(UUID player, String worldName, double amount) {
+        return withdrawPlayer(Bukkit.getOfflinePlayer(player), worldName, amount);
+    }
+
+    /**
+     * Deposit an amount to a player by UUID - DO NOT USE NEGATIVE AMOUNTS
+     *
+     * @param player UUID of the player
+     * @param amount Amount to deposit
+     * @return Detailed response of transaction
+     */
+    default EconomyResponse depositPlayer(UUID player, double amount) {
+        return depositPlayer(Bukkit.getOfflinePlayer(player), amount);
+    }
+
+    /**
+     * Deposit an amount to a player by UUID on a given world - DO NOT USE NEGATIVE AMOUNTS
+     *
+     * @param player    UUID of the player
+     * @param worldName name of the world
+     * @param amount    Amount to deposit
+     * @return Detailed response of transaction
+     */
+    default EconomyResponse depositPlayer(UUID player, String worldName, double amount) {
+        return depositPlayer(Bukkit.getOfflinePlayer(player), worldName, amount);
+    }
+
+    /**
+     * Gets balance of a player in minor units
+     * The default implementation converts {@link #getBalance(OfflinePlayer)}, economy plugins storing
+     * fixed-point balances should override the minor unit methods.
+     *
+     * @param player of the player
+     * @return Amount currently held in players account, in minor units
+     */
+    default long getBalanceMinor(OfflinePlayer player) {
+        return MinorUnits.toMinor(getBalance(player), minorUnitDigits());
+    }
+
+    /**
+     * Gets balance of a player on the specified world in minor units
+     *
+     * @param player to check
+     * @param world  name of the world
+     * @return Amount currently held in players account, in minor units
+     */
+    default long getBalanceMinor(OfflinePlayer player, String world) {
+        return MinorUnits.toMinor(getBalance(player, world), minorUnitDigits());
+    }
+
+    /**
+     * Withdraw an amount in minor units from a player - DO NOT USE NEGATIVE AMOUNTS
+     *
+     * @param player to withdraw from
+     * @param amount Amount to withdraw, in minor units
+     * @return Detailed response of transaction
+     */
+    default MinorResponse withdrawMinor(OfflinePlayer player, long amount) {
+        int digits = minorUnitDigits();
+        return MinorResponse.of(withdrawPlayer(player, MinorUnits.toMajor(amount, digits)), digits);
+    }
+
+    /**
+     * Withdraw an amount in minor units from a player on a given world - DO NOT USE NEGATIVE AMOUNTS
+     *
+     * @param player    to withdraw from
+     * @param worldName name of the world
+     * @param amount    Amount to withdraw, in minor units
+     * @return Detailed response of transaction
+     */
+    default MinorResponse withdrawMinor(OfflinePlayer player, String worldName, long amount) {
+        int digits = minorUnitDigits();
+        return MinorResponse.of(withdrawPlayer(player, worldName, MinorUnits.toMajor(amount, digits)), digits);
+    }
+
+    /**
+     * Deposit an amount in minor units to a player - DO NOT USE NEGATIVE AMOUNTS
+     *
+     * @param player to deposit to
+     * @param amount Amount to deposit, in minor units
+     * @return Detailed response of transaction
+     */
+    default MinorResponse depositMinor(OfflinePlayer player, long amount) {
+        int digits = minorUnitDigits();
+        return MinorResponse.of(depositPlayer(player, MinorUnits.toMajor(amount, digits)), digits);
+    }
+
+    /**
+     * Deposit an amount in minor units to a player on a given world - DO NOT USE NEGATIVE AMOUNTS
+     *
+     * @param player    to deposit to
+     * @param worldName name of the world
+     * @param amount    Amount to deposit, in minor units
+     * @return Detailed response of transaction
+     */
+    default MinorResponse depositMinor(OfflinePlayer player, String worldName, long amount) {
+        int digits = minorUnitDigits();
+        return MinorResponse.of(depositPlayer(player, worldName, MinorUnits.toMajor(amount, digits)), digits);
+    }
+
+    /**
+     * Transfer an amount from one player to another - DO NOT USE NEGATIVE AMOUNTS
+     *
+     * @param from   player to withdraw from
+     * @param to     player to deposit to
+     * @param amount Amount to transfer
+     * @return Detailed response of transaction, the balance is the new balance of <b>from</b>
+     */
+    default EconomyResponse transfer(OfflinePlayer from, OfflinePlayer to, double amount) {
+        return transfer(from, to, null, amount);
+    }
+
+    /**
+     * Transfer an amount from one player to another on a given world - DO NOT USE NEGATIVE AMOUNTS
+     * The default implementation withdraws from <b>from</b>, deposits to <b>to</b> and refunds <b>from</b>
+     * if the deposit fails. Economy plugins should override this to run the transfer in a single transaction.
+     *
+     * @param from      player to withdraw from
+     * @param to        player to deposit to
+     * @param worldName name of the world, or null for the global accounts
+     * @param amount    Amount to transfer
+     * @return Detailed response of transaction, the balance is the new balance of <b>from</b>
+     */
+    default EconomyResponse transfer(OfflinePlayer from, OfflinePlayer to, String worldName, double amount) {
+        EconomyResponse withdrawn = worldName == null ? withdrawPlayer(from, amount) : withdrawPlayer(from, worldName, amount);
+        if (!withdrawn.transactionSuccess()) {
+            return withdrawn;
+        }
+        EconomyResponse deposited = worldName == null ? depositPlayer(to, withdrawn.amount) : depositPlayer(to, worldName, withdrawn.amount);
+        if (deposited.transactionSuccess()) {
+            return withdrawn;
+        }
+        EconomyResponse refunded = worldName == null ? depositPlayer(from, withdrawn.amount) : depositPlayer(from, worldName, withdrawn.amount);
+        return transferFailed(withdrawn, deposited, refunded);
+    }
+
+    /**
+     * Transfer an amount from one bank account to another - DO NOT USE NEGATIVE AMOUNTS
+     * The default implementation withdraws from <b>from</b>, deposits to <b>to</b> and refunds <b>from</b>
+     * if the deposit fails. Economy plugins should override this to run the transfer in a single transaction.
+     *
+     * @param from   name of the account to withdraw from
+     * @param to     name of the account to deposit to
+     * @param amount Amount to transfer
+     * @return EconomyResponse Object, the balance is the new balance of <b>from</b>
+     */
+    default EconomyResponse bankTransfer(String from, String to, double amount) {
+        EconomyResponse withdrawn = bankWithdraw(from, amount);
+        if (!withdrawn.transactionSuccess()) {
+            return withdrawn;
+        }
+        EconomyResponse deposited = bankDeposit(to, withdrawn.amount);
+        if (deposited.transactionSuccess()) {
+            return withdrawn;
+        }
+        return transferFailed(withdrawn, deposited, bankDeposit(from, withdrawn.amount));
+    }
+
+    private static EconomyResponse transferFailed(EconomyResponse withdrawn, EconomyResponse deposited, EconomyResponse refunded) {
+        if (refunded.transactionSuccess()) {
+            return new EconomyResponse(0, refunded.balance, EconomyResponse.ResponseType.FAILURE, deposited.errorMessage);
+        }
+        return new EconomyResponse(withdrawn.amount, withdrawn.balance, EconomyResponse.ResponseType.FAILURE,
+                "Deposit failed (" + deposited.errorMessage + ") and the refund failed (" + refunded.errorMessage + ")");
+    }
+
+    /**
+     * Withdraw an amount from a player into a reusable result holder - DO NOT USE NEGATIVE AMOUNTS
+     * The default implementation copies the response of {@link #withdrawPlayer(OfflinePlayer, String, double)},
+     * economy plugins can override this to avoid allocating a response.
+     *
+     * @param player    to withdraw from
+     * @param worldName name of the world, or null for the global account
+     * @param amount    Amount to withdraw
+     * @param result    holder the outcome is written to
+     * @return if the transaction was successful
+     */
+    default boolean withdrawPlayer(OfflinePlayer player, String worldName, double amount, EconomyResult result) {
+        return result.set(worldName == null ? withdrawPlayer(player, amount) : withdrawPlayer(player, worldName, amount))
+                .transactionSuccess();
+    }
+
+    /**
+     * Deposit an amount to a player into a reusable result holder - DO NOT USE NEGATIVE AMOUNTS
+     * The default implementation copies the response of {@link #depositPlayer(OfflinePlayer, String, double)},
+     * economy plugins can override this to avoid allocating a response.
+     *
+     * @param player    to deposit to
+     * @param worldName name of the world, or null for the global account
+     * @param amount    Amount to deposit
+     * @param result    holder the outcome is written to
+     * @return if the transaction was successful
+     */
+    default boolean depositPlayer(OfflinePlayer player, String worldName, double amount, EconomyResult result) {
+        return result.set(worldName == null ? depositPlayer(player, amount) : depositPlayer(player, worldName, amount))
+                .transactionSuccess();
+    }
+
+    /**
+     * Withdraw an amount from a player at most once per transaction id - DO NOT USE NEGATIVE AMOUNTS
+     * Repeating the call with the same id, for example after a timeout, returns the response of the first call
+     * instead of withdrawing again. The default implementation does not remember ids and always withdraws, wrap the
+     * economy in an {@link IdempotentEconomy} or use an economy plugin that deduplicates natively.
+     *
+     * @param transactionId id chosen by the caller, unique per transaction
+     * @param player        to withdraw from
+     * @param worldName     name of the world, or null for the global account
+     * @param amount        Amount to withdraw
+     * @return Detailed response of transaction
+     */
+    default EconomyResponse withdrawPlayer(String transactionId, OfflinePlayer player, String worldName, double amount) {
+        return worldName == null ? withdrawPlayer(player, amount) : withdrawPlayer(player, worldName, amount);
+    }
+
+    /**
+     * Deposit an amount to a player at most once per transaction id - DO NOT USE NEGATIVE AMOUNTS
+     * Repeating the call with the same id, for example after a timeout, returns the response of the first call
+     * instead of depositing again. The default implementation does not remember ids and always deposits, wrap the
+     * economy in an {@link IdempotentEconomy} or use an economy plugin that deduplicates natively.
+     *
+     * @param transactionId id chosen by the caller, unique per transaction
+     * @param player        to deposit to
+     * @param worldName     name of the world, or null for the global account
+     * @param amount        Amount to deposit
+     * @return Detailed response of transaction
+     */
+    default EconomyResponse depositPlayer(String transactionId, OfflinePlayer player, String worldName, double amount) {
+        return worldName == null ? depositPlayer(player, amount) : depositPlayer(player, worldName, amount);
+    }
+
     /**
      * Creates a bank account with the specified name and the player as the owner
      *
@@ -257,6 +634,58 @@ public interface Economy {
      */
     List<String> getBanks();
 
+    /**
+     * Gets a page of the list of banks.
+     * Overrides must take pages from a stable order, such as sorted by name, so consecutive pages do not overlap.
+     * The default implementation copies a slice of {@link #getBanks()}, so each call loads the whole list and
+     * consecutive pages may skip or repeat banks if the economy does not keep its banks in a stable order.
+     * Economy plugins with many banks should override this to load a single page from their storage.
+     *
+     * @param offset number of banks to skip
+     * @param limit  maximum number of banks to return
+     * @return the banks of the page, empty once past the last bank
+     */
+    default List<String> getBanks(int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Invalid page: " + offset + ", " + limit);
+        }
+        List<String> banks = getBanks();
+        if (offset >= banks.size()) {
+            return new ArrayList<>(0);
+        }
+        return new ArrayList<>(banks.subList(offset, (int) Math.min((long) offset + limit, banks.size())));
+    }
+
+    /**
+     * Walks the list of banks.
+     * The default implementation takes a single snapshot of {@link #getBanks()} when the stream starts, so the whole
+     * list is held in memory and banks created or deleted while streaming are not seen. Economy plugins with many banks
+     * should override this to walk their storage a page at a time, for example through {@link #getBanks(int, int)}.
+     *
+     * @return sequential Stream of the bank names
+     */
+    default Stream<String> streamBanks() {
+        return StreamSupport.stream(() -> getBanks().spliterator(), Spliterator.ORDERED, false);
+    }
+
+    /**
+     * Gets the balances of many banks at once.
+     * The default implementation calls {@link #bankBalance(String)} for every bank,
+     * economy plugins backed by a database should override this to answer with a single query.
+     *
+     * @param names of the accounts
+     * @return Balances in the iteration order of <b>names</b>, {@link Double#NaN} for banks that could not be read
+     */
+    default Balances<String> bankBalances(Collection<String> names) {
+        double[] balances = new double[names.size()];
+        int i = 0;
+        for (String name : names) {
+            EconomyResponse response = bankBalance(name);
+            balances[i++] = response.transactionSuccess() ? response.balance : Double.NaN;
+        }
+        return new Balances<>(names, balances);
+    }
+
     /**
      * Attempts to create a player account for the given player
      *
@@ -274,4 +703,16 @@ public interface Economy {
      * @return if the account creation was successful
      */
     boolean createPlayerAccount(OfflinePlayer player, String worldName);
+
+    /**
+     * Gets an asynchronous view of this economy.
+     * The default implementation runs every blocking call on the given executor,
+     * economy plugins with a natively asynchronous backend should override this.
+     *
+     * @param executor to run blocking calls on
+     * @return AsyncEconomy view of this economy
+     */
+    default AsyncEconomy async(Executor executor) {
+        return new ExecutorAsyncEconomy(this, executor);
+    }
 }
@@ -22,6 +22,8 @@ package net.milkbowl.vault.economy;
  */
 public class EconomyResponse {
 
+    private static final EconomyResponse NOT_IMPLEMENTED = new EconomyResponse(0, 0, ResponseType.NOT_IMPLEMENTED, "Not implemented");
+
     /**
      * Amount modified by calling method
      */
@@ -55,6 +57,16 @@ public class EconomyResponse {
         this.errorMessage = errorMessage;
     }
 
+    /**
+     * Gets the shared response for operations the economy plugin does not implement.
+     * Use this instead of allocating a new response on every call.
+     *
+     * @return shared EconomyResponse with type {@link ResponseType#NOT_IMPLEMENTED}
+     */
+    public static EconomyResponse notImplemented() {
+        return NOT_IMPLEMENTED;
+    }
+
     /**
      * Checks if an operation was successful
      *
@@ -81,5 +93,14 @@ public class EconomyResponse {
         int getId() {
             return id;
         }
+
+        static ResponseType byId(int id) {
+            for (ResponseType type : values()) {
+                if (type.id == id) {
+                    return type;
+                }
+            }
+            return null;
+        }
     }
 }
@@ -0,0 +1,114 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+import net.milkbowl.vault.economy.EconomyResponse.ResponseType;
+
+/**
+ * Mutable, reusable holder for the outcome of an economy operation.
+ * Callers running many transactions in a loop can pass the same instance to
+ * {@link Economy#withdrawPlayer(org.bukkit.OfflinePlayer, String, double, EconomyResult)} and
+ * {@link Economy#depositPlayer(org.bukkit.OfflinePlayer, String, double, EconomyResult)} instead of
+ * receiving a new {@link EconomyResponse} per call. Instances are not thread safe.
+ */
+public class EconomyResult {
+
+    private double amount;
+    private double balance;
+    private ResponseType type = ResponseType.NOT_IMPLEMENTED;
+    private String errorMessage;
+
+    /**
+     * Sets the outcome of an operation
+     *
+     * @param amount       Amount modified during operation
+     * @param balance      New balance of account
+     * @param type         Success or failure type of the operation
+     * @param errorMessage Error message if necessary (commonly null)
+     * @return this result
+     */
+    public EconomyResult set(double amount, double balance, ResponseType type, String errorMessage) {
+        this.amount = amount;
+        this.balance = balance;
+        this.type = type;
+        this.errorMessage = errorMessage;
+        return this;
+    }
+
+    /**
+     * Copies the outcome of an EconomyResponse
+     *
+     * @param response to copy
+     * @return this result
+     */
+    public EconomyResult set(EconomyResponse response) {
+        return set(response.amount, response.balance, response.type, response.errorMessage);
+    }
+
+    /**
+     * Gets the amount modified by the operation
+     *
+     * @return Amount modified during operation
+     */
+    public double getAmount() {
+        return amount;
+    }
+
+    /**
+     * Gets the new balance of the account
+     *
+     * @return New balance of account
+     */
+    public double getBalance() {
+        return balance;
+    }
+
+    /**
+     * Gets the type of the outcome
+     *
+     * @return Success or failure type of the operation
+     */
+    public ResponseType getType() {
+        return type;
+    }
+
+    /**
+     * Gets the error message if the type is ResponseType.FAILURE
+     *
+     * @return Error message, commonly null
+     */
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    /**
+     * Checks if an operation was successful
+     *
+     * @return Value
+     */
+    public boolean transactionSuccess() {
+        return type == ResponseType.SUCCESS;
+    }
+
+    /**
+     * Creates an immutable snapshot of this result
+     *
+     * @return EconomyResponse Object
+     */
+    public EconomyResponse toResponse() {
+        return new EconomyResponse(amount, balance, type, errorMessage);
+    }
+}
@@ -0,0 +1,392 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.World;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Binary snapshot of the balances of an economy, used for backups and for migrating between economy plugins.
+ * <p>
+ * Both directions stream the records through a fixed size buffer, so the snapshot itself does not grow in memory with
+ * the number of accounts. Accounts and balances are read and written in batches through
+ * {@link Economy#hasAccounts(Collection, String)}, {@link Economy#getBalances(Collection, String)} and
+ * {@link Economy#bankBalances(Collection)}, economy plugins that answer those with a single query export quickly.
+ * <p>
+ * An export is not a point-in-time snapshot: every batch is read as it is reached, so transactions made while the
+ * export runs may be included for some accounts and not for others. Stop transactions while exporting, or have the
+ * economy plugin pass an Economy reading from its own consistent view, such as a database snapshot, as the source.
+ * <p>
+ * Layout: int magic, short version, byte minor unit digits, long timestamp, then records until an end tag.
+ * Player record: byte 1, two longs player UUID, short length of the UTF-8 world name (-1 for the global account)
+ * followed by the name, long balance in minor units.
+ * Bank record: byte 2, short length of the UTF-8 bank name followed by the name, long balance in minor units.
+ * End: byte 0, long number of records.
+ */
+public final class EconomySnapshot {
+
+    static final int MAGIC = 0x56534E50;
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 15;
+
+    private static final byte END = 0;
+    private static final byte PLAYER = 1;
+    private static final byte BANK = 2;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int BATCH_SIZE = 512;
+
+    private EconomySnapshot() {
+    }
+
+    /**
+     * Writes the global and per world balances of every player that has joined the server, and every bank, to a file.
+     * The players are taken from {@link Bukkit#getOfflinePlayers()}, which the server returns as one array, use
+     * {@link #exportTo(Economy, Iterable, Collection, WritableByteChannel)} with a paged source of players to keep the
+     * player list out of memory as well.
+     *
+     * @param source economy to read the balances from
+     * @param file   to write the snapshot to, replaced if it exists
+     * @return number of accounts written
+     * @throws IOException if the file can not be written
+     */
+    public static long exportTo(Economy source, Path file) throws IOException {
+        List<String> worlds = new ArrayList<>();
+        for (World world : Bukkit.getWorlds()) {
+            worlds.add(world.getName());
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long written = exportTo(source, Arrays.asList(Bukkit.getOfflinePlayers()), worlds, channel);
+            channel.force(false);
+            return written;
+        }
+    }
+
+    /**
+     * Writes a snapshot to a channel.
+     * For every player the global account and the account of every given world are written, accounts the player
+     * does not have are skipped. Banks are only written when the economy supports them.
+     *
+     * @param source  economy to read the balances from
+     * @param players to write the accounts of, iterated once
+     * @param worlds  names of the worlds to write the accounts of besides the global account
+     * @param out     channel to write the snapshot to, left open
+     * @return number of accounts written
+     * @throws IOException if the channel fails to write
+     */
+    public static long exportTo(Economy source, Iterable<? extends OfflinePlayer> players, Collection<String> worlds, WritableByteChannel out) throws IOException {
+        int digits = source.minorUnitDigits();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        buffer.putInt(MAGIC).putShort(VERSION).put((byte) digits).putLong(System.currentTimeMillis());
+        long count = 0;
+        List<OfflinePlayer> batch = new ArrayList<>(BATCH_SIZE);
+        Iterator<? extends OfflinePlayer> iterator = players.iterator();
+        while (iterator.hasNext()) {
+            batch.add(iterator.next());
+            if (batch.size() == BATCH_SIZE || !iterator.hasNext()) {
+                count += writePlayers(source, batch, null, digits, buffer, out);
+                for (String world : worlds) {
+                    count += writePlayers(source, batch, world, digits, buffer, out);
+                }
+                batch.clear();
+            }
+        }
+        if (source.hasBankSupport()) {
+            List<String> banks = new ArrayList<>(BATCH_SIZE);
+            try (Stream<String> names = source.streamBanks()) {
+                Iterator<String> bankIterator = names.iterator();
+                while (bankIterator.hasNext()) {
+                    banks.add(bankIterator.next());
+                    if (banks.size() == BATCH_SIZE || !bankIterator.hasNext()) {
+                        count += writeBanks(source, banks, digits, buffer, out);
+                        banks.clear();
+                    }
+                }
+            }
+        }
+        reserve(buffer, out, 9);
+        buffer.put(END).putLong(count);
+        drain(buffer, out);
+        return count;
+    }
+
+    /**
+     * Loads a snapshot file into an economy
+     *
+     * @param target economy to load the balances into
+     * @param file   to read the snapshot from
+     * @return number of accounts that were changed
+     * @throws IOException if the file can not be read or is not a snapshot
+     * @see #importFrom(Economy, ReadableByteChannel)
+     */
+    public static long importFrom(Economy target, Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return importFrom(target, channel);
+        }
+    }
+
+    /**
+     * Loads a snapshot into an economy.
+     * Every account is set to its balance in the snapshot by depositing or withdrawing the difference to its current
+     * balance, missing player accounts are created first. Banks that do not exist in the economy are skipped, as the
+     * API gives no way to read the owner of a bank. Balances are converted when the economies round to different
+     * digits. Reading stops with an {@link EOFException} if the snapshot is truncated, accounts read up to that point
+     * have already been changed.
+     *
+     * @param target economy to load the balances into
+     * @param in     channel to read the snapshot from, left open
+     * @return number of accounts that were changed
+     * @throws IOException if the channel fails to read or does not hold a snapshot
+     */
+    public static long importFrom(Economy target, ReadableByteChannel in) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        buffer.flip();
+        fill(buffer, in, HEADER_SIZE);
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("Not an economy snapshot");
+        }
+        short version = buffer.getShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported snapshot version " + version);
+        }
+        int digits = buffer.get();
+        buffer.getLong();
+        if (digits < 0 || digits > MinorUnits.MAX_DIGITS) {
+            throw new IOException("Invalid minor unit digits " + digits);
+        }
+        long changed = 0;
+        long records = 0;
+        List<OfflinePlayer> players = new ArrayList<>(BATCH_SIZE);
+        List<Long> balances = new ArrayList<>(BATCH_SIZE);
+        String batchWorld = null;
+        List<String> banks = new ArrayList<>(BATCH_SIZE);
+        List<Long> bankBalances = new ArrayList<>(BATCH_SIZE);
+        while (true) {
+            fill(buffer, in, 1);
+            byte tag = buffer.get();
+            if (tag == END) {
+                fill(buffer, in, 8);
+                long count = buffer.getLong();
+                if (count != records) {
+                    throw new IOException("Snapshot holds " + records + " accounts, expected " + count);
+                }
+                break;
+            }
+            records++;
+            if (tag == PLAYER) {
+                fill(buffer, in, 18);
+                UUID player = new UUID(buffer.getLong(), buffer.getLong());
+                String world = readName(buffer, in);
+                fill(buffer, in, 8);
+                long balance = buffer.getLong();
+                if (!players.isEmpty() && (players.size() == BATCH_SIZE || !Objects.equals(world, batchWorld))) {
+                    changed += loadPlayers(target, players, balances, batchWorld, digits);
+                }
+                batchWorld = world;
+                players.add(Bukkit.getOfflinePlayer(player));
+                balances.add(balance);
+            } else if (tag == BANK) {
+                fill(buffer, in, 2);
+                String bank = readName(buffer, in);
+                fill(buffer, in, 8);
+                banks.add(bank);
+                bankBalances.add(buffer.getLong());
+                if (banks.size() == BATCH_SIZE) {
+                    changed += loadBanks(target, banks, bankBalances, digits);
+                }
+            } else {
+                throw new IOException("Unknown snapshot record " + tag);
+            }
+        }
+        changed += loadPlayers(target, players, balances, batchWorld, digits);
+        changed += loadBanks(target, banks, bankBalances, digits);
+        return changed;
+    }
+
+    private static int writePlayers(Economy source, List<OfflinePlayer> batch, String world, int digits, ByteBuffer buffer, WritableByteChannel out) throws IOException {
+        BitSet exists = source.hasAccounts(batch, world);
+        List<OfflinePlayer> accounts = new ArrayList<>(exists.cardinality());
+        for (int i = exists.nextSetBit(0); i >= 0; i = exists.nextSetBit(i + 1)) {
+            accounts.add(batch.get(i));
+        }
+        if (accounts.isEmpty()) {
+            return 0;
+        }
+        byte[] name = world == null ? null : world.getBytes(StandardCharsets.UTF_8);
+        Balances<OfflinePlayer> balances = source.getBalances(accounts, world);
+        for (int i = 0; i < balances.size(); i++) {
+            UUID player = balances.getKey(i).getUniqueId();
+            reserve(buffer, out, 29 + (name == null ? 0 : name.length));
+            buffer.put(PLAYER).putLong(player.getMostSignificantBits()).putLong(player.getLeastSignificantBits());
+            putName(buffer, name);
+            buffer.putLong(MinorUnits.toMinor(balances.getBalance(i), digits));
+        }
+        return balances.size();
+    }
+
+    private static int writeBanks(Economy source, List<String> banks, int digits, ByteBuffer buffer, WritableByteChannel out) throws IOException {
+        Balances<String> balances = source.bankBalances(banks);
+        int written = 0;
+        for (int i = 0; i < balances.size(); i++) {
+            double balance = balances.getBalance(i);
+            if (Double.isNaN(balance)) {
+                continue;
+            }
+            byte[] name = balances.getKey(i).getBytes(StandardCharsets.UTF_8);
+            reserve(buffer, out, 11 + name.length);
+            buffer.put(BANK);
+            putName(buffer, name);
+            buffer.putLong(MinorUnits.toMinor(balance, digits));
+            written++;
+        }
+        return written;
+    }
+
+    private static int loadPlayers(Economy target, List<OfflinePlayer> players, List<Long> balances, String world, int digits) {
+        if (players.isEmpty()) {
+            return 0;
+        }
+        for (OfflinePlayer player : players) {
+            if (world == null ? !target.hasAccount(player) : !target.hasAccount(player, world)) {
+                if (world == null) {
+                    target.createPlayerAccount(player);
+                } else {
+                    target.createPlayerAccount(player, world);
+                }
+            }
+        }
+        Balances<OfflinePlayer> current = target.getBalances(players, world);
+        int changed = 0;
+        for (int i = 0; i < current.size(); i++) {
+            OfflinePlayer player = current.getKey(i);
+            double delta = MinorUnits.toMajor(balances.get(i), digits) - current.getBalance(i);
+            if (delta == 0) {
+                continue;
+            }
+            EconomyResponse response;
+            if (delta > 0) {
+                response = world == null ? target.depositPlayer(player, delta) : target.depositPlayer(player, world, delta);
+            } else {
+                response = world == null ? target.withdrawPlayer(player, -delta) : target.withdrawPlayer(player, world, -delta);
+            }
+            if (response.transactionSuccess()) {
+                changed++;
+            }
+        }
+        players.clear();
+        balances.clear();
+        return changed;
+    }
+
+    private static int loadBanks(Economy target, List<String> banks, List<Long> balances, int digits) {
+        if (banks.isEmpty()) {
+            return 0;
+        }
+        Balances<String> current = target.bankBalances(banks);
+        int changed = 0;
+        for (int i = 0; i < current.size(); i++) {
+            if (Double.isNaN(current.getBalance(i))) {
+                continue;
+            }
+            String bank = current.getKey(i);
+            double delta = MinorUnits.toMajor(balances.get(i), digits) - current.getBalance(i);
+            if (delta == 0) {
+                continue;
+            }
+            EconomyResponse response = delta > 0 ? target.bankDeposit(bank, delta) : target.bankWithdraw(bank, -delta);
+            if (response.transactionSuccess()) {
+                changed++;
+            }
+        }
+        banks.clear();
+        balances.clear();
+        return changed;
+    }
+
+    private static void putName(ByteBuffer buffer, byte[] name) {
+        if (name == null) {
+            buffer.putShort((short) -1);
+        } else {
+            buffer.putShort((short) name.length).put(name);
+        }
+    }
+
+    private static String readName(ByteBuffer buffer, ReadableByteChannel in) throws IOException {
+        short length = buffer.getShort();
+        if (length < 0) {
+            return null;
+        }
+        fill(buffer, in, length);
+        byte[] name = new byte[length];
+        buffer.get(name);
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Makes room for a record of the given size, writing out the buffered records if needed
+     */
+    private static void reserve(ByteBuffer buffer, WritableByteChannel out, int size) throws IOException {
+        if (size > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Account name is too long");
+        }
+        if (buffer.remaining() < size) {
+            drain(buffer, out);
+        }
+    }
+
+    private static void drain(ByteBuffer buffer, WritableByteChannel out) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Reads from the channel until the buffer holds at least the given number of unread bytes
+     */
+    private static void fill(ByteBuffer buffer, ReadableByteChannel in, int size) throws IOException {
+        if (buffer.remaining() >= size) {
+            return;
+        }
+        buffer.compact();
+        while (buffer.position() < size) {
+            if (in.read(buffer) < 0) {
+                throw new EOFException("Snapshot is truncated");
+            }
+        }
+        buffer.flip();
+    }
+}
@@ -0,0 +1,195 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.milkbowl.vault.economy;
+
+import org.bukkit.OfflinePlayer;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Default {@link AsyncEconomy} which runs the blocking {@link Economy} calls on an {@link Executor}.
+ * The executor should not be the main server thread, a bounded pool sized for the backend is recommended.
+ */
+public class ExecutorAsyncEconomy implements AsyncEconomy {
+
+    private final Economy economy;
+    private final Executor executor;
+
+    /**
+     * Constructor for ExecutorAsyncEconomy
+     *
+     * @param economy  Economy to run the calls against
+     * @param executor Executor the blocking calls are submitted to
+     */
+    public ExecutorAsyncEconomy(Economy economy, Executor executor) {
+        this.economy = Objects.requireNonNull(economy, "economy");
+        this.executor = Objects.requireNonNull(executor, "executor");
+    }
+
+    /**
+     * Gets the executor the blocking calls are submitted to
+     *
+     * @return the Executor
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    @Override
+    public Economy getEconomy() {
+        return economy;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> hasAccountAsync(OfflinePlayer player) {
+        return CompletableFuture.supplyAsync(() -> economy.hasAccount(player), executor);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> hasAccountAsync(OfflinePlayer player, String worldName) {
+        return CompletableFuture.supplyAsync(() -> economy.hasAccount(player, worldName), executor);
+    }
+
+    @Override
+    public CompletableFuture<Double> getBalanceAsync(OfflinePlayer player) {
+        return CompletableFuture.supplyAsync(() -> economy.getBalance(player), executor);
+    }
+
+    @Override
+    public CompletableFuture<Double> getBalanceAsync(OfflinePlayer player, String world) {
+        return CompletableFuture.supplyAsync(() -> economy.getBalance(player, world), executor);
+    }
+
+    @Override
+    public CompletableFuture<Balances<OfflinePlayer>> getBalancesAsync(Collection<? extends OfflinePlayer> players, String world) {
+        return CompletableFuture.supplyAsync(() -> economy.getBalances(players, world), executor);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> hasAsync(OfflinePlayer player, double amount) {
+        return CompletableFuture.supplyAsync(() -> economy.has(player, amount), executor);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> hasAsync(OfflinePlayer player, String worldName, double amount) {
+        return CompletableFuture.supplyAsync(() -> economy.has(player, worldName, amount), executor);
+    }
+
+    @Override
+    public CompletableFuture<EconomyResponse> withdrawPlayerAsync(OfflinePlayer player, double amount) {
+        return CompletableFuture.supplyAsync(() -> economy.withdrawPlayer(player, amount), executor);
+    }
+
+    @Override
+    public CompletableFuture<EconomyResponse> withdrawPlayerAsync(OfflinePlayer player, String worldName, double amount) {
+        return CompletableFuture.supplyAsync(() -> economy.withdrawPlayer(player, worldName, amount), executor);
+    }
+
+    @Override
+    public CompletableFuture<EconomyResponse> depositPlayerAsync(OfflinePlayer player, double amount) {
+        return CompletableFuture.supplyAsync(() -> economy.depositPlayer(player, amount), executor);
+    }
+
+    @Override
+    public CompletableFuture<EconomyResponse> depositPlayerAsync(OfflinePlayer player, String worldName, double amount) {
+        return CompletableFuture.supplyAsync(() -> economy.depositPlayer(player, worldName, amount), executor);
+    }
+
+    @Override
+    public CompletableFuture<EconomyResponse> transferAsync(OfflinePlayer from, OfflinePlayer to, double amount) {
+        return CompletableFuture.supplyAsync(() -> economy.transfer(from, to, amount), executor);
+    }
+
+    @Override
+    public CompletableFuture<EconomyResponse> transferAsync(OfflinePlayer from, OfflinePlayer to, String worldName, double amount) {
+        return CompletableFuture.supplyAsync(() -> economy.transfer(from, to, worldName, amount), executor);
+    }
+
+    @Override
+    public CompletableFuture<EconomyResponse> bankTransferAsync(String from, String to, double amount) {
+        return CompletableFuture.supplyAsync(() -> economy.bankTransfer(from, to, amount), executor);
+    }
+
+    @Override
+    public CompletableFuture<EconomyResponse> createBankAsync(String name, OfflinePlayer player) {
+        return CompletableFuture.supplyAsync(() -> economy.createBank(name, player), executor);
+    }
+
+    @Override
+    public CompletableFuture<EconomyResponse> deleteBankAsync(String name) {
+        return CompletableFuture.supplyAsync(() -> economy.deleteBank(name), executor);
+    }
+
+    @Override
+    public CompletableFuture<EconomyResponse> bankBalanceAsync(String name) {
+        return CompletableFuture.supplyAsync(() -> economy.bankBalance(name), executor);
+    }
+
+    @Override
+    public CompletableFuture<EconomyResponse> bankHasAsync(String name, double amount) {
+        return CompletableFuture.supplyAsync(() -> economy.bankHas(name, amount), executor);
+    }
+
+    @Override
+    public CompletableFuture<EconomyResponse> bankWithdrawAsync(String name, double amount) {
+        return CompletableFuture.supplyAsync(() -> economy.bankWithdraw(name, amount), executor);
+    }
+
+    @Override
+    public CompletableFuture<EconomyResponse> bankDepositAsync(String name, double amount) {
+        return CompletableFuture.supplyAsync(() -> economy.bankDeposit(name, amount), executor);
+    }
+
+    @Override
+    public CompletableFuture<EconomyResponse> isBankOwnerAsync(String name, OfflinePlayer player) {
+        return CompletableFuture.supplyAsync(() -> economy.isBankOwner(name, player), executor);
+    }
+
+    @Override
+    public CompletableFuture<EconomyResponse> isBankMemberAsync(String name, OfflinePlayer player) {
+        return CompletableFuture.supplyAsync(() -> economy.isBankMember(name, player), executor);
+    }
+
+    @Override
+    public CompletableFuture<List<String>> getBanksAsync() {
+        return CompletableFuture.supplyAsync(economy::getBanks, executor);
+    }
+
+    @Override
+    public CompletableFuture<List<String>> getBanksAsync(int offset, int limit) {
+        return CompletableFuture.supplyAsync(() -> economy.getBanks(offset, limit), executor);
+    }
+
+    @Override
+    public CompletableFuture<Balances<String>> bankBalancesAsync(Collection<String> names) {
+        return CompletableFuture.supplyAsync(() -> economy.bankBalances(names), executor);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> createPlayerAccountAsync(OfflinePlayer player) {
+        return CompletableFuture.supplyAsync(() -> economy.createPlayerAccount(player), executor);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> createPlayerAccountAsync(OfflinePlayer player, String worldName) {
+        return CompletableFuture.supplyAsync(() -> economy.createPlayerAccount(player, worldName), executor);
+    }
+}
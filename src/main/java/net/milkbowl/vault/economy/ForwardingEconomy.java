@@ -0,0 +1,198 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.milkbowl.vault.economy;
+
+import org.bukkit.OfflinePlayer;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Base class for {@link Economy} decorators.
+ * Every abstract Economy method is forwarded to the wrapped economy. Default methods are deliberately not forwarded,
+ * so that they are built on top of this decorator's own overrides. Subclasses that do not alter a default method's
+ * behavior may override it to forward to {@link #getDelegate()} and keep the provider's native implementation.
+ * The exception are the deposits and withdrawals with a transaction id, which are forwarded so that deduplication by
+ * the wrapped economy is not lost. Subclasses that act on deposits and withdrawals must override those as well.
+ */
+public abstract class ForwardingEconomy implements Economy {
+
+    protected final Economy delegate;
+
+    protected ForwardingEconomy(Economy delegate) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+    }
+
+    /**
+     * Gets the wrapped economy
+     *
+     * @return the wrapped Economy
+     */
+    public Economy getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public EconomyResponse withdrawPlayer(String transactionId, OfflinePlayer player, String worldName, double amount) {
+        return delegate.withdrawPlayer(transactionId, player, worldName, amount);
+    }
+
+    @Override
+    public EconomyResponse depositPlayer(String transactionId, OfflinePlayer player, String worldName, double amount) {
+        return delegate.depositPlayer(transactionId, player, worldName, amount);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return delegate.isEnabled();
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public boolean hasBankSupport() {
+        return delegate.hasBankSupport();
+    }
+
+    @Override
+    public int fractionalDigits() {
+        return delegate.fractionalDigits();
+    }
+
+    @Override
+    public String format(double amount) {
+        return delegate.format(amount);
+    }
+
+    @Override
+    public String currencyNamePlural() {
+        return delegate.currencyNamePlural();
+    }
+
+    @Override
+    public String currencyNameSingular() {
+        return delegate.currencyNameSingular();
+    }
+
+    @Override
+    public boolean hasAccount(OfflinePlayer player) {
+        return delegate.hasAccount(player);
+    }
+
+    @Override
+    public boolean hasAccount(OfflinePlayer player, String worldName) {
+        return delegate.hasAccount(player, worldName);
+    }
+
+    @Override
+    public double getBalance(OfflinePlayer player) {
+        return delegate.getBalance(player);
+    }
+
+    @Override
+    public double getBalance(OfflinePlayer player, String world) {
+        return delegate.getBalance(player, world);
+    }
+
+    @Override
+    public boolean has(OfflinePlayer player, double amount) {
+        return delegate.has(player, amount);
+    }
+
+    @Override
+    public boolean has(OfflinePlayer player, String worldName, double amount) {
+        return delegate.has(player, worldName, amount);
+    }
+
+    @Override
+    public EconomyResponse withdrawPlayer(OfflinePlayer player, double amount) {
+        return delegate.withdrawPlayer(player, amount);
+    }
+
+    @Override
+    public EconomyResponse withdrawPlayer(OfflinePlayer player, String worldName, double amount) {
+        return delegate.withdrawPlayer(player, worldName, amount);
+    }
+
+    @Override
+    public EconomyResponse depositPlayer(OfflinePlayer player, double amount) {
+        return delegate.depositPlayer(player, amount);
+    }
+
+    @Override
+    public EconomyResponse depositPlayer(OfflinePlayer player, String worldName, double amount) {
+        return delegate.depositPlayer(player, worldName, amount);
+    }
+
+    @Override
+    public EconomyResponse createBank(String name, OfflinePlayer player) {
+        return delegate.createBank(name, player);
+    }
+
+    @Override
+    public EconomyResponse deleteBank(String name) {
+        return delegate.deleteBank(name);
+    }
+
+    @Override
+    public EconomyResponse bankBalance(String name) {
+        return delegate.bankBalance(name);
+    }
+
+    @Override
+    public EconomyResponse bankHas(String name, double amount) {
+        return delegate.bankHas(name, amount);
+    }
+
+    @Override
+    public EconomyResponse bankWithdraw(String name, double amount) {
+        return delegate.bankWithdraw(name, amount);
+    }
+
+    @Override
+    public EconomyResponse bankDeposit(String name, double amount) {
+        return delegate.bankDeposit(name, amount);
+    }
+
+    @Override
+    public EconomyResponse isBankOwner(String name, OfflinePlayer player) {
+        return delegate.isBankOwner(name, player);
+    }
+
+    @Override
+    public EconomyResponse isBankMember(String name, OfflinePlayer player) {
+        return delegate.isBankMember(name, player);
+    }
+
+    @Override
+    public List<String> getBanks() {
+        return delegate.getBanks();
+    }
+
+    @Override
+    public boolean createPlayerAccount(OfflinePlayer player) {
+        return delegate.createPlayerAccount(player);
+    }
+
+    @Override
+    public boolean createPlayerAccount(OfflinePlayer player, String worldName) {
+        return delegate.createPlayerAccount(player, worldName);
+    }
+}
@@ -0,0 +1,154 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.milkbowl.vault.economy;
+
+import net.milkbowl.vault.economy.EconomyResponse.ResponseType;
+import org.bukkit.OfflinePlayer;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deduplicates deposits and withdrawals carrying a transaction id.
+ * <p>
+ * The response of every {@link #depositPlayer(String, OfflinePlayer, String, double)} and
+ * {@link #withdrawPlayer(String, OfflinePlayer, String, double)} is remembered for the deduplication window.
+ * A repeated call with the same id returns the remembered response without reaching the wrapped economy, a repeat
+ * arriving while the first call is still running waits for its response. Reusing an id for a different transaction
+ * fails. Calls that throw are forgotten, so they can be retried.
+ * <p>
+ * Ids are held in memory only, the window of an id starts once its call completes. Once more than the maximum number of
+ * ids is held the oldest completed ids are forgotten early, an id is never forgotten while its call is still running,
+ * so the maximum is exceeded by at most the number of running calls. Ids are passed on to the wrapped economy, and the
+ * decorators in this package pass them through, so this can be wrapped by other decorators.
+ */
+public class IdempotentEconomy extends ForwardingEconomy {
+
+    private final int maximumSize;
+    private final long windowNanos;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    // completed entries only, in the order they completed, so a running call never holds up the expiry of others
+    private final Queue<Entry> order = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Constructor for IdempotentEconomy
+     *
+     * @param delegate    Economy to deduplicate the transactions of
+     * @param maximumSize maximum number of remembered ids
+     * @param window      time an id is remembered
+     * @param unit        unit of <b>window</b>
+     */
+    public IdempotentEconomy(Economy delegate, int maximumSize, long window, TimeUnit unit) {
+        super(delegate);
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+        this.windowNanos = unit.toNanos(window);
+    }
+
+    /**
+     * Gets the number of remembered ids
+     *
+     * @return number of ids within the deduplication window
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public EconomyResponse withdrawPlayer(String transactionId, OfflinePlayer player, String worldName, double amount) {
+        return once(transactionId, new Request(false, player.getUniqueId(), worldName, amount),
+                () -> delegate.withdrawPlayer(transactionId, player, worldName, amount));
+    }
+
+    @Override
+    public EconomyResponse depositPlayer(String transactionId, OfflinePlayer player, String worldName, double amount) {
+        return once(transactionId, new Request(true, player.getUniqueId(), worldName, amount),
+                () -> delegate.depositPlayer(transactionId, player, worldName, amount));
+    }
+
+    private EconomyResponse once(String transactionId, Request request, Transaction transaction) {
+        Objects.requireNonNull(transactionId, "transactionId");
+        long now = System.nanoTime();
+        expire(now);
+        Entry entry = new Entry(transactionId, request);
+        Entry existing = entries.putIfAbsent(transactionId, entry);
+        if (existing != null) {
+            if (!existing.request.equals(request)) {
+                return new EconomyResponse(0, 0, ResponseType.FAILURE, "Transaction id was used for a different transaction");
+            }
+            try {
+                return existing.response.join();
+            } catch (CompletionException e) {
+                // the first call threw and was forgotten, run this one
+                return once(transactionId, request, transaction);
+            }
+        }
+        try {
+            EconomyResponse response = transaction.run();
+            entry.expiresAt = System.nanoTime() + windowNanos;
+            order.add(entry);
+            entry.response.complete(response);
+            return response;
+        } catch (RuntimeException | Error e) {
+            entries.remove(transactionId, entry);
+            entry.response.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Forgets the completed ids whose window has passed and the oldest completed ids above the maximum size.
+     * Running calls are not in the order queue, forgetting them would let a retry run the transaction again.
+     */
+    private void expire(long now) {
+        Entry head;
+        while ((head = order.peek()) != null && (now - head.expiresAt >= 0 || entries.size() >= maximumSize)) {
+            if (order.remove(head)) {
+                entries.remove(head.transactionId, head);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Transaction {
+        EconomyResponse run();
+    }
+
+    private record Request(boolean deposit, UUID player, String world, double amount) {
+    }
+
+    private static final class Entry {
+
+        private final String transactionId;
+        private final Request request;
+        private final CompletableFuture<EconomyResponse> response = new CompletableFuture<>();
+        private volatile long expiresAt;
+
+        private Entry(String transactionId, Request request) {
+            this.transactionId = transactionId;
+            this.request = request;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+import net.milkbowl.vault.economy.EconomyResponse.ResponseType;
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Reads the segments written by a {@link TransactionJournal}, oldest record first
+ */
+public class JournalReader {
+
+    private final Path directory;
+
+    /**
+     * Constructor for JournalReader
+     *
+     * @param directory directory holding the segment files
+     */
+    public JournalReader(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Passes every record of the journal to the consumer, oldest first.
+     * Reading stops at the first incomplete record of a segment, which is left behind by a crash during an append.
+     *
+     * @param consumer to pass the records to
+     * @throws IOException if a segment can not be read or is not a journal segment
+     */
+    public void forEach(Consumer<? super JournalRecord> consumer) throws IOException {
+        for (Path path : segments(directory)) {
+            MappedByteBuffer buffer;
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            if (buffer.remaining() < TransactionJournal.HEADER_SIZE || buffer.getInt() != TransactionJournal.MAGIC) {
+                throw new IOException("Not a journal segment: " + path);
+            }
+            short version = buffer.getShort();
+            if (version != TransactionJournal.VERSION) {
+                throw new IOException("Unsupported journal version " + version + " in " + path);
+            }
+            while (buffer.remaining() >= 4) {
+                int length = buffer.getInt();
+                if (length < TransactionJournal.RECORD_SIZE || length > buffer.remaining()) {
+                    break;
+                }
+                consumer.accept(read(buffer));
+            }
+        }
+    }
+
+    /**
+     * Restores the balances recorded in the journal into an economy.
+     * For every account the balance after its last successful mutation is applied by depositing or withdrawing the
+     * difference to its current balance. Banks that no longer exist in the economy are skipped.
+     *
+     * @param target economy to restore the balances into
+     * @return number of accounts that were changed
+     * @throws IOException if the journal can not be read
+     */
+    public int restore(Economy target) throws IOException {
+        Map<AccountKey, Double> players = new LinkedHashMap<>();
+        Map<String, Double> banks = new LinkedHashMap<>();
+        forEach(record -> {
+            if (!record.transactionSuccess()) {
+                return;
+            }
+            switch (record.type) {
+                case DEPOSIT, WITHDRAW -> players.put(new AccountKey(record.player, record.account), record.balance);
+                case BANK_DELETE -> banks.remove(record.account);
+                default -> banks.put(record.account, record.balance);
+            }
+        });
+        int changed = 0;
+        for (Map.Entry<AccountKey, Double> entry : players.entrySet()) {
+            OfflinePlayer player = Bukkit.getOfflinePlayer(entry.getKey().uuid());
+            String world = entry.getKey().world();
+            double delta = entry.getValue() - (world == null ? target.getBalance(player) : target.getBalance(player, world));
+            if (delta == 0) {
+                continue;
+            }
+            EconomyResponse response;
+            if (delta > 0) {
+                response = world == null ? target.depositPlayer(player, delta) : target.depositPlayer(player, world, delta);
+            } else {
+                response = world == null ? target.withdrawPlayer(player, -delta) : target.withdrawPlayer(player, world, -delta);
+            }
+            if (response.transactionSuccess()) {
+                changed++;
+            }
+        }
+        for (Map.Entry<String, Double> entry : banks.entrySet()) {
+            EconomyResponse current = target.bankBalance(entry.getKey());
+            if (!current.transactionSuccess()) {
+                continue;
+            }
+            double delta = entry.getValue() - current.balance;
+            if (delta == 0) {
+                continue;
+            }
+            EconomyResponse response = delta > 0 ? target.bankDeposit(entry.getKey(), delta) : target.bankWithdraw(entry.getKey(), -delta);
+            if (response.transactionSuccess()) {
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    private static JournalRecord read(MappedByteBuffer buffer) {
+        long timestamp = buffer.getLong();
+        TransactionType type = TransactionType.byId(buffer.get());
+        ResponseType result = ResponseType.byId(buffer.get());
+        long most = buffer.getLong();
+        long least = buffer.getLong();
+        double amount = buffer.getDouble();
+        double balance = buffer.getDouble();
+        short nameLength = buffer.getShort();
+        String account = null;
+        if (nameLength >= 0) {
+            byte[] name = new byte[nameLength];
+            buffer.get(name);
+            account = new String(name, StandardCharsets.UTF_8);
+        }
+        UUID player = type == null || type.isBank() ? null : new UUID(most, least);
+        return new JournalRecord(timestamp, type, result, player, account, amount, balance);
+    }
+
+    static List<Path> segments(Path directory) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return segments;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(path -> segmentIndex(path) >= 0).forEach(segments::add);
+        }
+        segments.sort(Comparator.comparingLong(JournalReader::segmentIndex));
+        return segments;
+    }
+
+    static long segmentIndex(Path path) {
+        String name = path.getFileName().toString();
+        if (!name.endsWith(TransactionJournal.SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(0, name.length() - TransactionJournal.SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+import net.milkbowl.vault.economy.EconomyResponse.ResponseType;
+
+import java.util.UUID;
+
+/**
+ * A single balance mutation read back from a {@link TransactionJournal}
+ */
+public class JournalRecord {
+
+    /**
+     * Time of the mutation in milliseconds since the epoch
+     */
+    public final long timestamp;
+    /**
+     * Kind of mutation
+     */
+    public final TransactionType type;
+    /**
+     * Outcome reported by the economy
+     */
+    public final ResponseType result;
+    /**
+     * Player of the account, null for bank transactions
+     */
+    public final UUID player;
+    /**
+     * World of a player account (null for the global account) or name of a bank account
+     */
+    public final String account;
+    /**
+     * Amount modified by the mutation
+     */
+    public final double amount;
+    /**
+     * Balance of the account after the mutation
+     */
+    public final double balance;
+
+    /**
+     * Constructor for JournalRecord
+     *
+     * @param timestamp Time of the mutation in milliseconds since the epoch
+     * @param type      Kind of mutation
+     * @param result    Outcome reported by the economy
+     * @param player    Player of the account, null for bank transactions
+     * @param account   World of a player account or name of a bank account
+     * @param amount    Amount modified by the mutation
+     * @param balance   Balance of the account after the mutation
+     */
+    public JournalRecord(long timestamp, TransactionType type, ResponseType result, UUID player, String account, double amount, double balance) {
+        this.timestamp = timestamp;
+        this.type = type;
+        this.result = result;
+        this.player = player;
+        this.account = account;
+        this.amount = amount;
+        this.balance = balance;
+    }
+
+    /**
+     * Checks if the recorded mutation was successful
+     *
+     * @return Value
+     */
+    public boolean transactionSuccess() {
+        return result == ResponseType.SUCCESS;
+    }
+}
@@ -0,0 +1,122 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.milkbowl.vault.economy;
+
+import org.bukkit.OfflinePlayer;
+
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Records every balance mutation made through the wrapped {@link Economy} in a {@link TransactionJournal}.
+ * Failing to write the journal is logged but never fails the transaction itself.
+ */
+public class JournalingEconomy extends ForwardingEconomy {
+
+    protected static final Logger log = Logger.getLogger("Minecraft");
+
+    private final TransactionJournal journal;
+
+    /**
+     * Constructor for JournalingEconomy
+     *
+     * @param delegate Economy to journal
+     * @param journal  Journal to write to
+     */
+    public JournalingEconomy(Economy delegate, TransactionJournal journal) {
+        super(delegate);
+        this.journal = Objects.requireNonNull(journal, "journal");
+    }
+
+    /**
+     * Gets the journal the mutations are written to
+     *
+     * @return the TransactionJournal
+     */
+    public TransactionJournal getJournal() {
+        return journal;
+    }
+
+    @Override
+    public EconomyResponse withdrawPlayer(OfflinePlayer player, double amount) {
+        return player(TransactionType.WITHDRAW, delegate.withdrawPlayer(player, amount), player, null);
+    }
+
+    @Override
+    public EconomyResponse withdrawPlayer(OfflinePlayer player, String worldName, double amount) {
+        return player(TransactionType.WITHDRAW, delegate.withdrawPlayer(player, worldName, amount), player, worldName);
+    }
+
+    @Override
+    public EconomyResponse depositPlayer(OfflinePlayer player, double amount) {
+        return player(TransactionType.DEPOSIT, delegate.depositPlayer(player, amount), player, null);
+    }
+
+    @Override
+    public EconomyResponse depositPlayer(OfflinePlayer player, String worldName, double amount) {
+        return player(TransactionType.DEPOSIT, delegate.depositPlayer(player, worldName, amount), player, worldName);
+    }
+
+    @Override
+    public EconomyResponse withdrawPlayer(String transactionId, OfflinePlayer player, String worldName, double amount) {
+        return player(TransactionType.WITHDRAW, delegate.withdrawPlayer(transactionId, player, worldName, amount), player, worldName);
+    }
+
+    @Override
+    public EconomyResponse depositPlayer(String transactionId, OfflinePlayer player, String worldName, double amount) {
+        return player(TransactionType.DEPOSIT, delegate.depositPlayer(transactionId, player, worldName, amount), player, worldName);
+    }
+
+    @Override
+    public EconomyResponse createBank(String name, OfflinePlayer player) {
+        return bank(TransactionType.BANK_CREATE, delegate.createBank(name, player), name);
+    }
+
+    @Override
+    public EconomyResponse deleteBank(String name) {
+        return bank(TransactionType.BANK_DELETE, delegate.deleteBank(name), name);
+    }
+
+    @Override
+    public EconomyResponse bankWithdraw(String name, double amount) {
+        return bank(TransactionType.BANK_WITHDRAW, delegate.bankWithdraw(name, amount), name);
+    }
+
+    @Override
+    public EconomyResponse bankDeposit(String name, double amount) {
+        return bank(TransactionType.BANK_DEPOSIT, delegate.bankDeposit(name, amount), name);
+    }
+
+    private EconomyResponse player(TransactionType type, EconomyResponse response, OfflinePlayer player, String world) {
+        try {
+            journal.appendPlayer(type, response, player.getUniqueId(), world);
+        } catch (RuntimeException e) {
+            log.log(Level.SEVERE, String.format("[%s] Could not journal %s of %s for %s", getName(), type, response.amount, player.getUniqueId()), e);
+        }
+        return response;
+    }
+
+    private EconomyResponse bank(TransactionType type, EconomyResponse response, String bank) {
+        try {
+            journal.appendBank(type, response, bank);
+        } catch (RuntimeException e) {
+            log.log(Level.SEVERE, String.format("[%s] Could not journal %s of %s for bank %s", getName(), type, response.amount, bank), e);
+        }
+        return response;
+    }
+}
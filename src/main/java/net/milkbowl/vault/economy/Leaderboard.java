@@ -0,0 +1,71 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.milkbowl.vault.economy;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Players ranked by balance, highest balance first. Ranks start at 1, ties are ordered by UUID.
+ */
+public interface Leaderboard {
+
+    /**
+     * Gets the number of ranked players
+     *
+     * @return number of ranked players
+     */
+    int size();
+
+    /**
+     * Gets the rank of a player
+     *
+     * @param player UUID of the player
+     * @return rank of the player, or -1 if the player is not ranked
+     */
+    int rank(UUID player);
+
+    /**
+     * Gets the highest ranked players
+     *
+     * @param count maximum number of entries
+     * @return up to <b>count</b> entries, highest balance first
+     */
+    default List<LeaderboardEntry> top(int count) {
+        return range(1, count);
+    }
+
+    /**
+     * Gets a page of the leaderboard
+     *
+     * @param page     page number, starting at 1
+     * @param pageSize number of entries per page
+     * @return entries of the page, highest balance first
+     */
+    default List<LeaderboardEntry> page(int page, int pageSize) {
+        return range((page - 1) * pageSize + 1, pageSize);
+    }
+
+    /**
+     * Gets the players from a rank onwards
+     *
+     * @param fromRank first rank to return, starting at 1
+     * @param count    maximum number of entries
+     * @return up to <b>count</b> entries, highest balance first
+     */
+    List<LeaderboardEntry> range(int fromRank, int count);
+}
@@ -0,0 +1,51 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.milkbowl.vault.economy;
+
+import java.util.UUID;
+
+/**
+ * A ranked player of a {@link Leaderboard}
+ */
+public class LeaderboardEntry {
+
+    /**
+     * Rank of the player, starting at 1
+     */
+    public final int rank;
+    /**
+     * UUID of the player
+     */
+    public final UUID player;
+    /**
+     * Balance of the player
+     */
+    public final double balance;
+
+    /**
+     * Constructor for LeaderboardEntry
+     *
+     * @param rank    Rank of the player
+     * @param player  UUID of the player
+     * @param balance Balance of the player
+     */
+    public LeaderboardEntry(int rank, UUID player, double balance) {
+        this.rank = rank;
+        this.player = player;
+        this.balance = balance;
+    }
+}
@@ -0,0 +1,293 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.milkbowl.vault.economy;
+
+import org.bukkit.OfflinePlayer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Incrementally maintained {@link Leaderboard}.
+ * Players are kept in a balanced search tree that tracks subtree sizes, so updates, rank lookups and the start of
+ * a page take logarithmic time. Safe for concurrent use, reads share a lock and updates take it exclusively.
+ */
+public class LeaderboardIndex implements Leaderboard {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<UUID, Node> nodes = new HashMap<>();
+    private Node root;
+    private long seed = System.nanoTime() | 1;
+
+    /**
+     * Builds an index by looking up the balance of every given player
+     *
+     * @param economy to look the balances up in
+     * @param players to rank
+     * @param world   name of the world, or null for the global balances
+     * @return LeaderboardIndex of the players
+     */
+    public static LeaderboardIndex scan(Economy economy, Collection<? extends OfflinePlayer> players, String world) {
+        LeaderboardIndex index = new LeaderboardIndex();
+        Balances<OfflinePlayer> balances = economy.getBalances(players, world);
+        for (int i = 0; i < balances.size(); i++) {
+            index.update(balances.getKey(i).getUniqueId(), balances.getBalance(i));
+        }
+        return index;
+    }
+
+    /**
+     * Sets the balance of a player, adding the player if not ranked yet
+     *
+     * @param player  UUID of the player
+     * @param balance new balance of the player
+     */
+    public void update(UUID player, double balance) {
+        lock.writeLock().lock();
+        try {
+            Node node = nodes.get(player);
+            if (node != null) {
+                if (node.balance == balance) {
+                    return;
+                }
+                root = remove(root, node);
+                node.balance = balance;
+                node.left = null;
+                node.right = null;
+                node.size = 1;
+            } else {
+                node = new Node(player, balance, nextPriority());
+                nodes.put(player, node);
+            }
+            root = insert(root, node);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a player from the index
+     *
+     * @param player UUID of the player
+     * @return if the player was ranked
+     */
+    public boolean remove(UUID player) {
+        lock.writeLock().lock();
+        try {
+            Node node = nodes.remove(player);
+            if (node == null) {
+                return false;
+            }
+            root = remove(root, node);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes every player from the index
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            nodes.clear();
+            root = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size(root);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int rank(UUID player) {
+        lock.readLock().lock();
+        try {
+            Node key = nodes.get(player);
+            if (key == null) {
+                return -1;
+            }
+            int rank = 1;
+            Node node = root;
+            while (node != null) {
+                int cmp = compare(key, node);
+                if (cmp < 0) {
+                    node = node.left;
+                } else {
+                    rank += size(node.left);
+                    if (cmp == 0) {
+                        return rank;
+                    }
+                    rank++;
+                    node = node.right;
+                }
+            }
+            return -1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<LeaderboardEntry> range(int fromRank, int count) {
+        if (fromRank < 1 || count < 0) {
+            throw new IllegalArgumentException("Invalid range: " + fromRank + ", " + count);
+        }
+        lock.readLock().lock();
+        try {
+            int from = fromRank - 1;
+            int to = (int) Math.min((long) from + count, size(root));
+            List<LeaderboardEntry> entries = new ArrayList<>(Math.max(to - from, 0));
+            collect(root, 0, from, to, entries);
+            return entries;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void collect(Node node, int offset, int from, int to, List<LeaderboardEntry> entries) {
+        if (node == null || offset >= to || offset + node.size <= from) {
+            return;
+        }
+        collect(node.left, offset, from, to, entries);
+        int index = offset + size(node.left);
+        if (index >= from && index < to) {
+            entries.add(new LeaderboardEntry(index + 1, node.player, node.balance));
+        }
+        collect(node.right, index + 1, from, to, entries);
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (added.priority > node.priority) {
+            Node[] split = split(node, added);
+            added.left = split[0];
+            added.right = split[1];
+            return update(added);
+        }
+        if (compare(added, node) < 0) {
+            node.left = insert(node.left, added);
+        } else {
+            node.right = insert(node.right, added);
+        }
+        return update(node);
+    }
+
+    private static Node remove(Node node, Node removed) {
+        if (node == null) {
+            return null;
+        }
+        if (node == removed) {
+            return merge(node.left, node.right);
+        }
+        if (compare(removed, node) < 0) {
+            node.left = remove(node.left, removed);
+        } else {
+            node.right = remove(node.right, removed);
+        }
+        return update(node);
+    }
+
+    /**
+     * Splits the tree into the nodes ordered before the key and the nodes ordered after it
+     */
+    private static Node[] split(Node node, Node key) {
+        if (node == null) {
+            return new Node[2];
+        }
+        if (compare(node, key) < 0) {
+            Node[] split = split(node.right, key);
+            node.right = split[0];
+            split[0] = update(node);
+            return split;
+        }
+        Node[] split = split(node.left, key);
+        node.left = split[1];
+        split[1] = update(node);
+        return split;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            return update(left);
+        }
+        right.left = merge(left, right.left);
+        return update(right);
+    }
+
+    private static Node update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+        return node;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static int compare(Node a, Node b) {
+        int cmp = Double.compare(b.balance, a.balance);
+        return cmp != 0 ? cmp : a.player.compareTo(b.player);
+    }
+
+    private int nextPriority() {
+        // xorshift, only called while holding the write lock
+        seed ^= seed << 13;
+        seed ^= seed >>> 7;
+        seed ^= seed << 17;
+        return (int) seed;
+    }
+
+    private static final class Node {
+
+        private final UUID player;
+        private final int priority;
+        private double balance;
+        private int size = 1;
+        private Node left;
+        private Node right;
+
+        private Node(UUID player, double balance, int priority) {
+            this.player = player;
+            this.balance = balance;
+            this.priority = priority;
+        }
+    }
+}
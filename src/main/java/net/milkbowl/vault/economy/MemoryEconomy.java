@@ -0,0 +1,635 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.milkbowl.vault.economy;
+
+import net.milkbowl.vault.economy.EconomyResponse.ResponseType;
+import org.bukkit.OfflinePlayer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Reference {@link MultiCurrencyEconomy} keeping all accounts in memory.
+ * <p>
+ * Accounts are keyed by player UUID and world, a null world being the global account. The balances of an account
+ * are stored in a single array of {@code long} minor units indexed by currency id, the primary currency being
+ * rounded to {@link #fractionalDigits()}. Every balance is updated with its own compare-and-set loop, so
+ * transactions on different accounts never contend on a shared lock. Banks hold the primary currency only.
+ * Accounts must be created with {@link #createPlayerAccount(OfflinePlayer)} before money can be deposited.
+ * Nothing is persisted, this is meant for tests, benchmarks and as a baseline for other implementations.
+ */
+public class MemoryEconomy implements MultiCurrencyEconomy {
+
+    private final String name;
+    private final int fractionalDigits;
+    private final int digits;
+    private final String currencyNameSingular;
+    private final String currencyNamePlural;
+    private final CurrencyFormatter formatter;
+    private final CurrencyRegistry currencies;
+    private final ConcurrentHashMap<AccountKey, AtomicLongArray> accounts = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Bank> banks = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for MemoryEconomy
+     *
+     * @param name                 Name of the economy
+     * @param fractionalDigits     number of digits after the decimal point kept, or -1 to use the default
+     * @param currencyNameSingular name of the currency in singular form
+     * @param currencyNamePlural   name of the currency in plural form, also the name of the primary currency
+     * @throws IllegalArgumentException if <b>currencyNamePlural</b> is null or empty
+     */
+    public MemoryEconomy(String name, int fractionalDigits, String currencyNameSingular, String currencyNamePlural) {
+        this(name, fractionalDigits, currencyNameSingular, currencyNamePlural, 8);
+    }
+
+    /**
+     * Constructor for MemoryEconomy with room for more currencies.
+     * The primary currency is registered under the plural currency name, register more with {@link #getCurrencies()}.
+     *
+     * @param name                 Name of the economy
+     * @param fractionalDigits     number of digits after the decimal point kept, or -1 to use the default
+     * @param currencyNameSingular name of the primary currency in singular form
+     * @param currencyNamePlural   name of the primary currency in plural form, also its registered name
+     * @param currencyCapacity     maximum number of currencies, including the primary currency
+     * @throws IllegalArgumentException if <b>currencyNamePlural</b> is null or empty
+     */
+    public MemoryEconomy(String name, int fractionalDigits, String currencyNameSingular, String currencyNamePlural, int currencyCapacity) {
+        if (currencyNamePlural == null || currencyNamePlural.isEmpty()) {
+            throw new IllegalArgumentException("The primary currency needs a plural name to be registered under");
+        }
+        this.name = name;
+        this.fractionalDigits = fractionalDigits;
+        this.digits = MinorUnits.digitsFor(fractionalDigits);
+        this.currencyNameSingular = currencyNameSingular;
+        this.currencyNamePlural = currencyNamePlural;
+        this.formatter = new CurrencyFormatter(digits, currencyNameSingular, currencyNamePlural, 256);
+        this.currencies = new CurrencyRegistry(currencyCapacity);
+        currencies.register(currencyNamePlural, fractionalDigits, currencyNameSingular, currencyNamePlural);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public boolean hasBankSupport() {
+        return true;
+    }
+
+    @Override
+    public int fractionalDigits() {
+        return fractionalDigits;
+    }
+
+    @Override
+    public int minorUnitDigits() {
+        return digits;
+    }
+
+    @Override
+    public String format(double amount) {
+        return formatter.format(amount);
+    }
+
+    @Override
+    public CurrencyFormatter formatter() {
+        return formatter;
+    }
+
+    @Override
+    public String currencyNamePlural() {
+        return currencyNamePlural;
+    }
+
+    @Override
+    public String currencyNameSingular() {
+        return currencyNameSingular;
+    }
+
+    @Override
+    public CurrencyRegistry getCurrencies() {
+        return currencies;
+    }
+
+    @Override
+    public boolean hasAccount(OfflinePlayer player) {
+        return accounts.containsKey(new AccountKey(player.getUniqueId(), null));
+    }
+
+    @Override
+    public boolean hasAccount(OfflinePlayer player, String worldName) {
+        return accounts.containsKey(new AccountKey(player.getUniqueId(), worldName));
+    }
+
+    @Override
+    public double getBalance(OfflinePlayer player) {
+        return getBalance(player.getUniqueId(), null);
+    }
+
+    @Override
+    public double getBalance(OfflinePlayer player, String world) {
+        return getBalance(player.getUniqueId(), world);
+    }
+
+    @Override
+    public double getBalance(UUID player) {
+        return getBalance(player, null);
+    }
+
+    @Override
+    public double getBalance(UUID player, String world) {
+        return toMajor(balance(player, world));
+    }
+
+    @Override
+    public long getBalanceMinor(OfflinePlayer player) {
+        return getBalanceMinor(player, null);
+    }
+
+    @Override
+    public long getBalanceMinor(OfflinePlayer player, String world) {
+        return balance(player.getUniqueId(), world);
+    }
+
+    @Override
+    public Leaderboard getLeaderboard(String world) {
+        LeaderboardIndex index = new LeaderboardIndex();
+        accounts.forEach((key, balance) -> {
+            if (Objects.equals(key.world(), world)) {
+                index.update(key.uuid(), toMajor(balance.get(0)));
+            }
+        });
+        return index;
+    }
+
+    @Override
+    public long getBalanceMinor(OfflinePlayer player, String world, Currency currency) {
+        int slot = slot(currency);
+        AtomicLongArray account = accounts.get(new AccountKey(player.getUniqueId(), world));
+        return account == null ? 0 : account.get(slot);
+    }
+
+    @Override
+    public long[] getBalancesMinor(OfflinePlayer player, String world, long[] balances) {
+        int count = currencies.size();
+        if (balances == null || balances.length < count) {
+            balances = new long[count];
+        }
+        AtomicLongArray account = accounts.get(new AccountKey(player.getUniqueId(), world));
+        for (int i = 0; i < count; i++) {
+            balances[i] = account == null ? 0 : account.get(i);
+        }
+        return balances;
+    }
+
+    @Override
+    public boolean has(OfflinePlayer player, double amount) {
+        return has(player.getUniqueId(), null, amount);
+    }
+
+    @Override
+    public boolean has(OfflinePlayer player, String worldName, double amount) {
+        return has(player.getUniqueId(), worldName, amount);
+    }
+
+    @Override
+    public boolean has(UUID player, double amount) {
+        return has(player, null, amount);
+    }
+
+    @Override
+    public boolean has(UUID player, String worldName, double amount) {
+        return balance(player, worldName) >= toMinor(amount);
+    }
+
+    @Override
+    public EconomyResponse withdrawPlayer(OfflinePlayer player, double amount) {
+        return withdrawPlayer(player, null, amount);
+    }
+
+    @Override
+    public EconomyResponse withdrawPlayer(OfflinePlayer player, String worldName, double amount) {
+        return withdrawPlayer(player.getUniqueId(), worldName, amount);
+    }
+
+    @Override
+    public EconomyResponse withdrawPlayer(UUID player, double amount) {
+        return withdrawPlayer(player, null, amount);
+    }
+
+    @Override
+    public EconomyResponse withdrawPlayer(UUID player, String worldName, double amount) {
+        return toResponse(withdraw(player, worldName, toMinor(amount)));
+    }
+
+    @Override
+    public MinorResponse withdrawMinor(OfflinePlayer player, long amount) {
+        return withdrawMinor(player, null, amount);
+    }
+
+    @Override
+    public MinorResponse withdrawMinor(OfflinePlayer player, String worldName, long amount) {
+        return withdraw(player.getUniqueId(), worldName, amount);
+    }
+
+    @Override
+    public EconomyResponse depositPlayer(OfflinePlayer player, double amount) {
+        return depositPlayer(player, null, amount);
+    }
+
+    @Override
+    public EconomyResponse depositPlayer(OfflinePlayer player, String worldName, double amount) {
+        return depositPlayer(player.getUniqueId(), worldName, amount);
+    }
+
+    @Override
+    public EconomyResponse depositPlayer(UUID player, double amount) {
+        return depositPlayer(player, null, amount);
+    }
+
+    @Override
+    public EconomyResponse depositPlayer(UUID player, String worldName, double amount) {
+        return toResponse(deposit(player, worldName, toMinor(amount)));
+    }
+
+    @Override
+    public MinorResponse depositMinor(OfflinePlayer player, long amount) {
+        return depositMinor(player, null, amount);
+    }
+
+    @Override
+    public MinorResponse depositMinor(OfflinePlayer player, String worldName, long amount) {
+        return deposit(player.getUniqueId(), worldName, amount);
+    }
+
+    @Override
+    public EconomyResponse withdrawPlayer(OfflinePlayer player, String world, Currency currency, double amount) {
+        return toResponse(withdrawMinor(player, world, currency, MinorUnits.toMinor(amount, currency.minorUnitDigits())));
+    }
+
+    @Override
+    public EconomyResponse depositPlayer(OfflinePlayer player, String world, Currency currency, double amount) {
+        return toResponse(depositMinor(player, world, currency, MinorUnits.toMinor(amount, currency.minorUnitDigits())));
+    }
+
+    @Override
+    public MinorResponse withdrawMinor(OfflinePlayer player, String world, Currency currency, long amount) {
+        int slot = slot(currency);
+        if (amount < 0) {
+            return failure("Cannot withdraw negative funds", currency.minorUnitDigits());
+        }
+        return add(accounts.get(new AccountKey(player.getUniqueId(), world)), slot, -amount, currency.minorUnitDigits());
+    }
+
+    @Override
+    public MinorResponse depositMinor(OfflinePlayer player, String world, Currency currency, long amount) {
+        int slot = slot(currency);
+        if (amount < 0) {
+            return failure("Cannot deposit negative funds", currency.minorUnitDigits());
+        }
+        return add(accounts.get(new AccountKey(player.getUniqueId(), world)), slot, amount, currency.minorUnitDigits());
+    }
+
+    @Override
+    public boolean withdrawPlayer(OfflinePlayer player, String worldName, double amount, EconomyResult result) {
+        long minor = toMinor(amount);
+        if (minor < 0) {
+            return result.set(0, 0, ResponseType.FAILURE, "Cannot withdraw negative funds").transactionSuccess();
+        }
+        return add(accounts.get(new AccountKey(player.getUniqueId(), worldName)), -minor, result);
+    }
+
+    @Override
+    public boolean depositPlayer(OfflinePlayer player, String worldName, double amount, EconomyResult result) {
+        long minor = toMinor(amount);
+        if (minor < 0) {
+            return result.set(0, 0, ResponseType.FAILURE, "Cannot deposit negative funds").transactionSuccess();
+        }
+        return add(accounts.get(new AccountKey(player.getUniqueId(), worldName)), minor, result);
+    }
+
+    @Override
+    public EconomyResponse transfer(OfflinePlayer from, OfflinePlayer to, String worldName, double amount) {
+        long minor = toMinor(amount);
+        if (minor < 0) {
+            return toResponse(failure("Cannot transfer negative funds"));
+        }
+        AtomicLongArray source = accounts.get(new AccountKey(from.getUniqueId(), worldName));
+        AtomicLongArray target = accounts.get(new AccountKey(to.getUniqueId(), worldName));
+        if (target == null) {
+            return toResponse(failure("Account does not exist"));
+        }
+        return toResponse(transfer(source, target, minor));
+    }
+
+    @Override
+    public EconomyResponse createBank(String name, OfflinePlayer player) {
+        if (banks.putIfAbsent(name, new Bank(player.getUniqueId())) != null) {
+            return toResponse(failure("Bank already exists"));
+        }
+        return new EconomyResponse(0, 0, ResponseType.SUCCESS, null);
+    }
+
+    @Override
+    public EconomyResponse deleteBank(String name) {
+        Bank bank = banks.remove(name);
+        if (bank == null) {
+            return toResponse(failure("Bank does not exist"));
+        }
+        return new EconomyResponse(0, toMajor(bank.balance.get()), ResponseType.SUCCESS, null);
+    }
+
+    @Override
+    public EconomyResponse bankBalance(String name) {
+        Bank bank = banks.get(name);
+        if (bank == null) {
+            return toResponse(failure("Bank does not exist"));
+        }
+        return new EconomyResponse(0, toMajor(bank.balance.get()), ResponseType.SUCCESS, null);
+    }
+
+    @Override
+    public EconomyResponse bankHas(String name, double amount) {
+        Bank bank = banks.get(name);
+        if (bank == null) {
+            return toResponse(failure("Bank does not exist"));
+        }
+        long balance = bank.balance.get();
+        if (balance < toMinor(amount)) {
+            return new EconomyResponse(0, toMajor(balance), ResponseType.FAILURE, "Insufficient funds");
+        }
+        return new EconomyResponse(0, toMajor(balance), ResponseType.SUCCESS, null);
+    }
+
+    @Override
+    public EconomyResponse bankWithdraw(String name, double amount) {
+        long minor = toMinor(amount);
+        if (minor < 0) {
+            return toResponse(failure("Cannot withdraw negative funds"));
+        }
+        Bank bank = banks.get(name);
+        return toResponse(add(bank == null ? null : bank.balance, -minor));
+    }
+
+    @Override
+    public EconomyResponse bankDeposit(String name, double amount) {
+        long minor = toMinor(amount);
+        if (minor < 0) {
+            return toResponse(failure("Cannot deposit negative funds"));
+        }
+        Bank bank = banks.get(name);
+        return toResponse(add(bank == null ? null : bank.balance, minor));
+    }
+
+    @Override
+    public EconomyResponse bankTransfer(String from, String to, double amount) {
+        long minor = toMinor(amount);
+        if (minor < 0) {
+            return toResponse(failure("Cannot transfer negative funds"));
+        }
+        Bank source = banks.get(from);
+        Bank target = banks.get(to);
+        if (target == null) {
+            return toResponse(failure("Bank does not exist"));
+        }
+        return toResponse(transfer(source == null ? null : source.balance, target.balance, minor));
+    }
+
+    @Override
+    public EconomyResponse isBankOwner(String name, OfflinePlayer player) {
+        Bank bank = banks.get(name);
+        if (bank == null) {
+            return toResponse(failure("Bank does not exist"));
+        }
+        if (!bank.owner.equals(player.getUniqueId())) {
+            return new EconomyResponse(0, 0, ResponseType.FAILURE, "Player is not the owner of the bank");
+        }
+        return new EconomyResponse(0, 0, ResponseType.SUCCESS, null);
+    }
+
+    @Override
+    public EconomyResponse isBankMember(String name, OfflinePlayer player) {
+        Bank bank = banks.get(name);
+        if (bank == null) {
+            return toResponse(failure("Bank does not exist"));
+        }
+        UUID uuid = player.getUniqueId();
+        if (!bank.owner.equals(uuid) && !bank.members.contains(uuid)) {
+            return new EconomyResponse(0, 0, ResponseType.FAILURE, "Player is not a member of the bank");
+        }
+        return new EconomyResponse(0, 0, ResponseType.SUCCESS, null);
+    }
+
+    /**
+     * Adds a member to a bank account
+     *
+     * @param name   of the account
+     * @param player to add
+     * @return if the player was added
+     */
+    public boolean addBankMember(String name, OfflinePlayer player) {
+        Bank bank = banks.get(name);
+        return bank != null && bank.members.add(player.getUniqueId());
+    }
+
+    /**
+     * Removes a member from a bank account
+     *
+     * @param name   of the account
+     * @param player to remove
+     * @return if the player was removed
+     */
+    public boolean removeBankMember(String name, OfflinePlayer player) {
+        Bank bank = banks.get(name);
+        return bank != null && bank.members.remove(player.getUniqueId());
+    }
+
+    @Override
+    public List<String> getBanks() {
+        List<String> names = new ArrayList<>(banks.keySet());
+        names.sort(null);
+        return names;
+    }
+
+    @Override
+    public boolean createPlayerAccount(OfflinePlayer player) {
+        return createPlayerAccount(player, null);
+    }
+
+    @Override
+    public boolean createPlayerAccount(OfflinePlayer player, String worldName) {
+        return accounts.putIfAbsent(new AccountKey(player.getUniqueId(), worldName), new AtomicLongArray(currencies.capacity())) == null;
+    }
+
+    private long balance(UUID player, String world) {
+        AtomicLongArray account = accounts.get(new AccountKey(player, world));
+        return account == null ? 0 : account.get(0);
+    }
+
+    private MinorResponse withdraw(UUID player, String world, long amount) {
+        if (amount < 0) {
+            return failure("Cannot withdraw negative funds");
+        }
+        return add(accounts.get(new AccountKey(player, world)), 0, -amount, digits);
+    }
+
+    private MinorResponse deposit(UUID player, String world, long amount) {
+        if (amount < 0) {
+            return failure("Cannot deposit negative funds");
+        }
+        return add(accounts.get(new AccountKey(player, world)), 0, amount, digits);
+    }
+
+    private MinorResponse add(AtomicLongArray account, int slot, long delta, int digits) {
+        if (account == null) {
+            return failure("Account does not exist", digits);
+        }
+        while (true) {
+            long balance = account.get(slot);
+            long updated = balance + delta;
+            if (updated < 0) {
+                return new MinorResponse(0, balance, digits, ResponseType.FAILURE, "Insufficient funds");
+            }
+            if (delta > 0 && updated < balance) {
+                return new MinorResponse(0, balance, digits, ResponseType.FAILURE, "Balance limit reached");
+            }
+            if (account.compareAndSet(slot, balance, updated)) {
+                return new MinorResponse(Math.abs(delta), updated, digits, ResponseType.SUCCESS, null);
+            }
+        }
+    }
+
+    private MinorResponse add(AtomicLong bank, long delta) {
+        if (bank == null) {
+            return failure("Account does not exist");
+        }
+        while (true) {
+            long balance = bank.get();
+            long updated = balance + delta;
+            if (updated < 0) {
+                return new MinorResponse(0, balance, digits, ResponseType.FAILURE, "Insufficient funds");
+            }
+            if (delta > 0 && updated < balance) {
+                return new MinorResponse(0, balance, digits, ResponseType.FAILURE, "Balance limit reached");
+            }
+            if (bank.compareAndSet(balance, updated)) {
+                return new MinorResponse(Math.abs(delta), updated, digits, ResponseType.SUCCESS, null);
+            }
+        }
+    }
+
+    /**
+     * Same as {@link #add(AtomicLongArray, int, long, int)} for the primary currency, writing the outcome into the
+     * caller's holder so that nothing is allocated
+     */
+    private boolean add(AtomicLongArray account, long delta, EconomyResult result) {
+        if (account == null) {
+            return result.set(0, 0, ResponseType.FAILURE, "Account does not exist").transactionSuccess();
+        }
+        while (true) {
+            long balance = account.get(0);
+            long updated = balance + delta;
+            if (updated < 0) {
+                return result.set(0, toMajor(balance), ResponseType.FAILURE, "Insufficient funds").transactionSuccess();
+            }
+            if (delta > 0 && updated < balance) {
+                return result.set(0, toMajor(balance), ResponseType.FAILURE, "Balance limit reached").transactionSuccess();
+            }
+            if (account.compareAndSet(0, balance, updated)) {
+                return result.set(toMajor(Math.abs(delta)), toMajor(updated), ResponseType.SUCCESS, null).transactionSuccess();
+            }
+        }
+    }
+
+    private MinorResponse transfer(AtomicLongArray source, AtomicLongArray target, long amount) {
+        MinorResponse withdrawn = add(source, 0, -amount, digits);
+        if (!withdrawn.transactionSuccess()) {
+            return withdrawn;
+        }
+        MinorResponse deposited = add(target, 0, amount, digits);
+        if (!deposited.transactionSuccess()) {
+            // only reachable when the target balance would overflow, the source can always take its money back
+            return new MinorResponse(0, source.addAndGet(0, amount), digits, ResponseType.FAILURE, deposited.errorMessage);
+        }
+        return withdrawn;
+    }
+
+    private MinorResponse transfer(AtomicLong source, AtomicLong target, long amount) {
+        MinorResponse withdrawn = add(source, -amount);
+        if (!withdrawn.transactionSuccess()) {
+            return withdrawn;
+        }
+        MinorResponse deposited = add(target, amount);
+        if (!deposited.transactionSuccess()) {
+            // only reachable when the target balance would overflow, the source can always take its money back
+            return new MinorResponse(0, source.addAndGet(amount), digits, ResponseType.FAILURE, deposited.errorMessage);
+        }
+        return withdrawn;
+    }
+
+    private MinorResponse failure(String message) {
+        return failure(message, digits);
+    }
+
+    private static MinorResponse failure(String message, int digits) {
+        return new MinorResponse(0, 0, digits, ResponseType.FAILURE, message);
+    }
+
+    private int slot(Currency currency) {
+        if (!currencies.contains(currency)) {
+            throw new IllegalArgumentException("Currency is not registered with this economy: " + currency);
+        }
+        return currency.id;
+    }
+
+    private EconomyResponse toResponse(MinorResponse response) {
+        return new EconomyResponse(MinorUnits.toMajor(response.amount, response.digits), MinorUnits.toMajor(response.balance, response.digits),
+                response.type, response.errorMessage);
+    }
+
+    private long toMinor(double amount) {
+        return MinorUnits.toMinor(amount, digits);
+    }
+
+    private double toMajor(long minor) {
+        return MinorUnits.toMajor(minor, digits);
+    }
+
+    private static final class Bank {
+
+        private final UUID owner;
+        private final Set<UUID> members = ConcurrentHashMap.newKeySet();
+        private final AtomicLong balance = new AtomicLong();
+
+        private Bank(UUID owner) {
+            this.owner = owner;
+        }
+    }
+}
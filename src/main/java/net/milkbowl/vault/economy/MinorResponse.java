@@ -0,0 +1,85 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+import net.milkbowl.vault.economy.EconomyResponse.ResponseType;
+
+/**
+ * Fixed-point counterpart of {@link EconomyResponse}.
+ * Amounts are expressed in minor units, see {@link MinorUnits} and {@link Economy#minorUnitDigits()}.
+ */
+public class MinorResponse {
+
+    /**
+     * Amount modified by calling method, in minor units
+     */
+    public final long amount;
+    /**
+     * New balance of account, in minor units
+     */
+    public final long balance;
+    /**
+     * Number of minor unit digits of amount and balance
+     */
+    public final int digits;
+    /**
+     * Success or failure of call. Using Enum of ResponseType to determine valid
+     * outcomes
+     */
+    public final ResponseType type;
+    /**
+     * Error message if the variable 'type' is ResponseType.FAILURE
+     */
+    public final String errorMessage;
+
+    /**
+     * Constructor for MinorResponse
+     *
+     * @param amount       Amount modified during operation, in minor units
+     * @param balance      New balance of account, in minor units
+     * @param digits       Number of minor unit digits
+     * @param type         Success or failure type of the operation
+     * @param errorMessage Error message if necessary (commonly null)
+     */
+    public MinorResponse(long amount, long balance, int digits, ResponseType type, String errorMessage) {
+        this.amount = amount;
+        this.balance = balance;
+        this.digits = digits;
+        this.type = type;
+        this.errorMessage = errorMessage;
+    }
+
+    /**
+     * Converts an EconomyResponse into minor units
+     *
+     * @param response to convert
+     * @param digits   Number of minor unit digits
+     * @return MinorResponse Object
+     */
+    public static MinorResponse of(EconomyResponse response, int digits) {
+        return new MinorResponse(MinorUnits.toMinor(response.amount, digits), MinorUnits.toMinor(response.balance, digits),
+                digits, response.type, response.errorMessage);
+    }
+
+    /**
+     * Checks if an operation was successful
+     *
+     * @return Value
+     */
+    public boolean transactionSuccess() {
+        return type == ResponseType.SUCCESS;
+    }
+}
@@ -0,0 +1,90 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.milkbowl.vault.economy;
+
+/**
+ * Conversion between {@code double} amounts and fixed-point {@code long} minor units.
+ * An amount of 12.34 with 2 minor unit digits is stored as 1234.
+ */
+public final class MinorUnits {
+
+    /**
+     * Number of digits used when an economy does not round ({@link Economy#fractionalDigits()} returns -1)
+     */
+    public static final int DEFAULT_DIGITS = 2;
+    /**
+     * Largest supported number of digits, 10^18 is the largest power of ten that fits a long
+     */
+    public static final int MAX_DIGITS = 18;
+
+    private static final long[] POWERS = new long[MAX_DIGITS + 1];
+
+    static {
+        POWERS[0] = 1;
+        for (int i = 1; i < POWERS.length; i++) {
+            POWERS[i] = POWERS[i - 1] * 10;
+        }
+    }
+
+    private MinorUnits() {
+    }
+
+    /**
+     * Gets the number of minor units digits matching the given fractional digits
+     *
+     * @param fractionalDigits as returned by {@link Economy#fractionalDigits()}
+     * @return number of minor unit digits
+     */
+    public static int digitsFor(int fractionalDigits) {
+        return fractionalDigits < 0 ? DEFAULT_DIGITS : Math.min(fractionalDigits, MAX_DIGITS);
+    }
+
+    /**
+     * Gets the number of minor units in one major unit
+     *
+     * @param digits number of minor unit digits
+     * @return 10 to the power of <b>digits</b>
+     */
+    public static long scale(int digits) {
+        if (digits < 0 || digits > MAX_DIGITS) {
+            throw new IllegalArgumentException("digits must be between 0 and " + MAX_DIGITS + ": " + digits);
+        }
+        return POWERS[digits];
+    }
+
+    /**
+     * Converts an amount into minor units, rounding half up
+     *
+     * @param amount to convert
+     * @param digits number of minor unit digits
+     * @return amount in minor units
+     */
+    public static long toMinor(double amount, int digits) {
+        return Math.round(amount * scale(digits));
+    }
+
+    /**
+     * Converts minor units into an amount
+     *
+     * @param minor  amount in minor units
+     * @param digits number of minor unit digits
+     * @return amount
+     */
+    public static double toMajor(long minor, int digits) {
+        return (double) minor / scale(digits);
+    }
+}
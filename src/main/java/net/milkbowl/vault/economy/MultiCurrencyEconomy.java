@@ -0,0 +1,145 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.milkbowl.vault.economy;
+
+import org.bukkit.OfflinePlayer;
+
+/**
+ * An {@link Economy} holding balances in several currencies.
+ * <p>
+ * Currencies are registered once in the {@link CurrencyRegistry} of the economy and addressed by {@link Currency}
+ * handles. The currency with id 0 is the primary currency, the one used by the single currency methods of
+ * {@link Economy}. All methods taking a world accept null for the global account.
+ */
+public interface MultiCurrencyEconomy extends Economy {
+
+    /**
+     * Gets the registry of the currencies of this economy
+     *
+     * @return CurrencyRegistry of this economy
+     */
+    CurrencyRegistry getCurrencies();
+
+    /**
+     * Gets the currency used by the single currency methods
+     *
+     * @return the Currency with id 0
+     */
+    default Currency getPrimaryCurrency() {
+        return getCurrencies().get(0);
+    }
+
+    /**
+     * Gets balance of a player in a currency
+     *
+     * @param player   of the player
+     * @param world    name of the world, or null for the global account
+     * @param currency of the balance
+     * @return Amount currently held in players account
+     */
+    default double getBalance(OfflinePlayer player, String world, Currency currency) {
+        return MinorUnits.toMajor(getBalanceMinor(player, world, currency), currency.minorUnitDigits());
+    }
+
+    /**
+     * Gets balance of a player in a currency, in minor units of the currency
+     *
+     * @param player   of the player
+     * @param world    name of the world, or null for the global account
+     * @param currency of the balance
+     * @return balance in minor units
+     */
+    long getBalanceMinor(OfflinePlayer player, String world, Currency currency);
+
+    /**
+     * Gets the balances of a player in every currency with a single account lookup
+     *
+     * @param player   of the player
+     * @param world    name of the world, or null for the global account
+     * @param balances array to fill, indexed by currency id, or null to allocate one
+     * @return <b>balances</b>, or a new array if it was null or shorter than the number of currencies
+     */
+    long[] getBalancesMinor(OfflinePlayer player, String world, long[] balances);
+
+    /**
+     * Checks if a player has an amount of a currency - DO NOT USE NEGATIVE AMOUNTS
+     *
+     * @param player   to check
+     * @param world    name of the world, or null for the global account
+     * @param currency of the amount
+     * @param amount   to check for
+     * @return True if <b>player</b> has <b>amount</b>, False else wise
+     */
+    default boolean has(OfflinePlayer player, String world, Currency currency, double amount) {
+        return getBalance(player, world, currency) >= amount;
+    }
+
+    /**
+     * Withdraw an amount of a currency from a player - DO NOT USE NEGATIVE AMOUNTS
+     *
+     * @param player   to withdraw from
+     * @param world    name of the world, or null for the global account
+     * @param currency to withdraw
+     * @param amount   Amount to withdraw
+     * @return Detailed response of transaction
+     */
+    EconomyResponse withdrawPlayer(OfflinePlayer player, String world, Currency currency, double amount);
+
+    /**
+     * Deposit an amount of a currency to a player - DO NOT USE NEGATIVE AMOUNTS
+     *
+     * @param player   to deposit to
+     * @param world    name of the world, or null for the global account
+     * @param currency to deposit
+     * @param amount   Amount to deposit
+     * @return Detailed response of transaction
+     */
+    EconomyResponse depositPlayer(OfflinePlayer player, String world, Currency currency, double amount);
+
+    /**
+     * Withdraw an amount of a currency in its minor units from a player - DO NOT USE NEGATIVE AMOUNTS
+     *
+     * @param player   to withdraw from
+     * @param world    name of the world, or null for the global account
+     * @param currency to withdraw
+     * @param amount   Amount to withdraw in minor units
+     * @return MinorResponse of the transaction
+     */
+    MinorResponse withdrawMinor(OfflinePlayer player, String world, Currency currency, long amount);
+
+    /**
+     * Deposit an amount of a currency in its minor units to a player - DO NOT USE NEGATIVE AMOUNTS
+     *
+     * @param player   to deposit to
+     * @param world    name of the world, or null for the global account
+     * @param currency to deposit
+     * @param amount   Amount to deposit in minor units
+     * @return MinorResponse of the transaction
+     */
+    MinorResponse depositMinor(OfflinePlayer player, String world, Currency currency, long amount);
+
+    /**
+     * Format amount of a currency into a human readable String
+     *
+     * @param currency of the amount
+     * @param amount   to format
+     * @return Human readable string describing amount
+     */
+    default String format(Currency currency, double amount) {
+        return currency.formatter().format(amount);
+    }
+}
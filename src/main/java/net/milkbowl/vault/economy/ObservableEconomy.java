@@ -0,0 +1,159 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.milkbowl.vault.economy;
+
+import org.bukkit.OfflinePlayer;
+
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Publishes a {@link BalanceChange} for every successful balance mutation made through the wrapped {@link Economy}.
+ * <p>
+ * Changes are delivered to subscribers on the given executor through per-subscriber buffers of bounded capacity,
+ * and subscribers control their rate with {@link Flow.Subscription#request(long)}. Publishing never blocks the
+ * transaction: when a subscriber's buffer is full the change is dropped for that subscriber and counted in
+ * {@link #getDropped()}. Close the economy on shutdown to complete all subscriptions.
+ */
+public class ObservableEconomy extends ForwardingEconomy implements AutoCloseable {
+
+    private final SubmissionPublisher<BalanceChange> publisher;
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * Constructor for ObservableEconomy
+     *
+     * @param delegate       Economy to observe
+     * @param executor       Executor the changes are delivered on
+     * @param bufferCapacity maximum number of undelivered changes per subscriber
+     */
+    public ObservableEconomy(Economy delegate, Executor executor, int bufferCapacity) {
+        super(delegate);
+        this.publisher = new SubmissionPublisher<>(executor, bufferCapacity);
+    }
+
+    /**
+     * Gets the publisher of the balance changes
+     *
+     * @return Publisher to subscribe to
+     */
+    public Flow.Publisher<BalanceChange> getPublisher() {
+        return publisher;
+    }
+
+    /**
+     * Gets the number of changes that were dropped because a subscriber's buffer was full
+     *
+     * @return number of dropped changes, counted once per subscriber
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    @Override
+    public void close() {
+        publisher.close();
+    }
+
+    @Override
+    public EconomyResponse withdrawPlayer(OfflinePlayer player, double amount) {
+        return player(delegate.withdrawPlayer(player, amount), player, null, TransactionType.WITHDRAW);
+    }
+
+    @Override
+    public EconomyResponse withdrawPlayer(OfflinePlayer player, String worldName, double amount) {
+        return player(delegate.withdrawPlayer(player, worldName, amount), player, worldName, TransactionType.WITHDRAW);
+    }
+
+    @Override
+    public EconomyResponse depositPlayer(OfflinePlayer player, double amount) {
+        return player(delegate.depositPlayer(player, amount), player, null, TransactionType.DEPOSIT);
+    }
+
+    @Override
+    public EconomyResponse depositPlayer(OfflinePlayer player, String worldName, double amount) {
+        return player(delegate.depositPlayer(player, worldName, amount), player, worldName, TransactionType.DEPOSIT);
+    }
+
+    @Override
+    public EconomyResponse withdrawPlayer(String transactionId, OfflinePlayer player, String worldName, double amount) {
+        return player(delegate.withdrawPlayer(transactionId, player, worldName, amount), player, worldName, TransactionType.WITHDRAW);
+    }
+
+    @Override
+    public EconomyResponse depositPlayer(String transactionId, OfflinePlayer player, String worldName, double amount) {
+        return player(delegate.depositPlayer(transactionId, player, worldName, amount), player, worldName, TransactionType.DEPOSIT);
+    }
+
+    @Override
+    public EconomyResponse createBank(String name, OfflinePlayer player) {
+        return bank(delegate.createBank(name, player), name, TransactionType.BANK_CREATE);
+    }
+
+    @Override
+    public EconomyResponse deleteBank(String name) {
+        return bank(delegate.deleteBank(name), name, TransactionType.BANK_DELETE);
+    }
+
+    @Override
+    public EconomyResponse bankWithdraw(String name, double amount) {
+        return bank(delegate.bankWithdraw(name, amount), name, TransactionType.BANK_WITHDRAW);
+    }
+
+    @Override
+    public EconomyResponse bankDeposit(String name, double amount) {
+        return bank(delegate.bankDeposit(name, amount), name, TransactionType.BANK_DEPOSIT);
+    }
+
+    private EconomyResponse player(EconomyResponse response, OfflinePlayer player, String world, TransactionType cause) {
+        if (response.transactionSuccess()) {
+            publish(player.getUniqueId(), world, response, cause);
+        }
+        return response;
+    }
+
+    private EconomyResponse bank(EconomyResponse response, String name, TransactionType cause) {
+        if (response.transactionSuccess()) {
+            publish(null, name, response, cause);
+        }
+        return response;
+    }
+
+    private void publish(UUID player, String account, EconomyResponse response, TransactionType cause) {
+        if (publisher.isClosed() || !publisher.hasSubscribers()) {
+            return;
+        }
+        double delta = switch (cause) {
+            case DEPOSIT, BANK_DEPOSIT -> response.amount;
+            case WITHDRAW, BANK_WITHDRAW -> -response.amount;
+            case BANK_CREATE, BANK_DELETE -> 0;
+        };
+        double balance = cause == TransactionType.BANK_DELETE ? 0 : response.balance;
+        try {
+            publisher.offer(new BalanceChange(player, account, delta, balance, cause), (subscriber, change) -> {
+                dropped.increment();
+                return false;
+            });
+        } catch (IllegalStateException e) {
+            // closed after the check above, the transaction already succeeded so the change is only dropped
+            dropped.increment();
+        }
+    }
+}
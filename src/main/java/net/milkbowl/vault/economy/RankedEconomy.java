@@ -0,0 +1,167 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.milkbowl.vault.economy;
+
+import org.bukkit.OfflinePlayer;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps a {@link LeaderboardIndex} per world up to date with the deposits and withdrawals made through it.
+ * The index of a world is seeded from the wrapped economy's {@link Economy#getLeaderboard(String)} the first time it
+ * is requested, from then on every successful transaction updates the rank of its player. Transactions made while
+ * the index is being seeded are applied once seeding is done.
+ * <p>
+ * After a transaction the balance is read again from the wrapped economy while holding a lock for the player, so
+ * concurrent transactions of one player can not leave the rank of an older balance behind. This costs one balance
+ * read per transaction on a world that has been ranked.
+ * Balance changes that bypass this decorator are only picked up by {@link #refresh(OfflinePlayer, String)}.
+ */
+public class RankedEconomy extends ForwardingEconomy {
+
+    private static final String GLOBAL = "";
+    private static final int STRIPES = 64;
+
+    private final ConcurrentHashMap<String, LeaderboardIndex> indexes = new ConcurrentHashMap<>();
+    // players with transactions during the seeding of a world, by world
+    private final ConcurrentHashMap<String, Map<UUID, OfflinePlayer>> seeding = new ConcurrentHashMap<>();
+    private final Object[] locks = new Object[STRIPES];
+
+    /**
+     * Constructor for RankedEconomy
+     *
+     * @param delegate Economy to rank
+     */
+    public RankedEconomy(Economy delegate) {
+        super(delegate);
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    @Override
+    public Leaderboard getLeaderboard(String world) {
+        String key = world == null ? GLOBAL : world;
+        LeaderboardIndex index = indexes.get(key);
+        if (index != null) {
+            return index;
+        }
+        index = indexes.computeIfAbsent(key, k -> seed(k, world));
+        // the index is published before the players are taken, so a transaction either sees it or is taken here
+        Map<UUID, OfflinePlayer> changed = seeding.remove(key);
+        if (changed != null) {
+            for (OfflinePlayer player : changed.values()) {
+                update(index, player, world);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Reloads the balance of a player into the leaderboard of a world
+     *
+     * @param player to refresh
+     * @param world  name of the world, or null for the global balance
+     */
+    public void refresh(OfflinePlayer player, String world) {
+        LeaderboardIndex index = indexes.get(world == null ? GLOBAL : world);
+        if (index != null) {
+            update(index, player, world);
+        }
+    }
+
+    @Override
+    public EconomyResponse withdrawPlayer(OfflinePlayer player, double amount) {
+        return ranked(delegate.withdrawPlayer(player, amount), player, null);
+    }
+
+    @Override
+    public EconomyResponse withdrawPlayer(OfflinePlayer player, String worldName, double amount) {
+        return ranked(delegate.withdrawPlayer(player, worldName, amount), player, worldName);
+    }
+
+    @Override
+    public EconomyResponse depositPlayer(OfflinePlayer player, double amount) {
+        return ranked(delegate.depositPlayer(player, amount), player, null);
+    }
+
+    @Override
+    public EconomyResponse depositPlayer(OfflinePlayer player, String worldName, double amount) {
+        return ranked(delegate.depositPlayer(player, worldName, amount), player, worldName);
+    }
+
+    @Override
+    public EconomyResponse withdrawPlayer(String transactionId, OfflinePlayer player, String worldName, double amount) {
+        return ranked(delegate.withdrawPlayer(transactionId, player, worldName, amount), player, worldName);
+    }
+
+    @Override
+    public EconomyResponse depositPlayer(String transactionId, OfflinePlayer player, String worldName, double amount) {
+        return ranked(delegate.depositPlayer(transactionId, player, worldName, amount), player, worldName);
+    }
+
+    private LeaderboardIndex seed(String key, String world) {
+        // registered before the balances are read, so later transactions are applied once seeding is done
+        seeding.put(key, new ConcurrentHashMap<>());
+        try {
+            Leaderboard leaderboard = delegate.getLeaderboard(world);
+            if (leaderboard instanceof LeaderboardIndex index) {
+                return index;
+            }
+            LeaderboardIndex index = new LeaderboardIndex();
+            for (LeaderboardEntry entry : leaderboard.top(leaderboard.size())) {
+                index.update(entry.player, entry.balance);
+            }
+            return index;
+        } catch (RuntimeException | Error e) {
+            seeding.remove(key);
+            throw e;
+        }
+    }
+
+    private EconomyResponse ranked(EconomyResponse response, OfflinePlayer player, String world) {
+        if (response.transactionSuccess()) {
+            String key = world == null ? GLOBAL : world;
+            LeaderboardIndex index = indexes.get(key);
+            if (index == null) {
+                Map<UUID, OfflinePlayer> changed = seeding.get(key);
+                if (changed != null) {
+                    changed.put(player.getUniqueId(), player);
+                }
+                // seeding may have finished in between, in which case the player was not taken
+                index = indexes.get(key);
+                if (index == null) {
+                    return response;
+                }
+            }
+            update(index, player, world);
+        }
+        return response;
+    }
+
+    /**
+     * Reads the balance of a player and ranks it, ordered with the other updates of the player
+     */
+    private void update(LeaderboardIndex index, OfflinePlayer player, String world) {
+        UUID uuid = player.getUniqueId();
+        synchronized (locks[(uuid.hashCode() & Integer.MAX_VALUE) % STRIPES]) {
+            index.update(uuid, world == null ? delegate.getBalance(player) : delegate.getBalance(player, world));
+        }
+    }
+}
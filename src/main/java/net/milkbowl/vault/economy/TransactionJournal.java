@@ -0,0 +1,265 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+import net.milkbowl.vault.economy.EconomyResponse.ResponseType;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Append-only binary journal of balance mutations, written into memory-mapped segment files.
+ * <p>
+ * Appending only copies a compact record into the mapped segment, nothing is forced to disk on the calling thread.
+ * Records survive a crash of the server process as soon as they are appended, call {@link #sync()} from an
+ * asynchronous task to also make them survive a crash of the machine. When a segment is full the journal continues
+ * in a new segment file, segments are never modified once rotated. Use {@link JournalReader} to read them back.
+ * <p>
+ * The next segment file is created ahead of time by {@link #sync()}, and full segments are forced to disk by the next
+ * {@link #sync()}, so rotating does not touch the storage device on the appending thread. A segment created ahead
+ * of time stays empty if the journal is closed before using it.
+ * <p>
+ * Segment layout: int magic, short version, then records until a record length of 0.
+ * Record layout: int length of the rest of the record, long timestamp, byte {@link TransactionType},
+ * byte {@link ResponseType}, two longs player UUID (zero for banks), double amount, double balance,
+ * short length of the UTF-8 account name (-1 for null) followed by the name.
+ */
+public class TransactionJournal implements Closeable {
+
+    static final int MAGIC = 0x564A4E4C;
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 6;
+    static final int RECORD_SIZE = 44;
+    static final String SUFFIX = ".journal";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final List<MappedByteBuffer> retired = new ArrayList<>();
+    private long segment;
+    private long reserved;
+    private MappedByteBuffer buffer;
+    private MappedByteBuffer next;
+    private boolean preparing;
+    private boolean closed;
+
+    /**
+     * Opens a journal in the given directory. Existing segments are kept and appending continues in a new segment.
+     *
+     * @param directory   directory holding the segment files
+     * @param segmentSize size of a segment file in bytes
+     * @throws IOException if the directory or the first segment can not be created
+     */
+    public TransactionJournal(Path directory, int segmentSize) throws IOException {
+        if (segmentSize < HEADER_SIZE + RECORD_SIZE + 8) {
+            throw new IllegalArgumentException("segmentSize is too small: " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+        long last = -1;
+        for (Path path : JournalReader.segments(directory)) {
+            last = Math.max(last, JournalReader.segmentIndex(path));
+        }
+        this.segment = last + 1;
+        this.reserved = segment + 1;
+        this.buffer = createSegment(segment);
+        this.next = createSegment(reserved);
+    }
+
+    /**
+     * Gets the directory holding the segment files
+     *
+     * @return the journal directory
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Appends a record for a player account
+     *
+     * @param type     Kind of mutation
+     * @param response Response of the economy
+     * @param player   UUID of the player
+     * @param world    name of the world, or null for the global account
+     */
+    public void appendPlayer(TransactionType type, EconomyResponse response, UUID player, String world) {
+        append(type, response.type, player, world, response.amount, response.balance);
+    }
+
+    /**
+     * Appends a record for a bank account
+     *
+     * @param type     Kind of mutation
+     * @param response Response of the economy
+     * @param bank     name of the bank
+     */
+    public void appendBank(TransactionType type, EconomyResponse response, String bank) {
+        append(type, response.type, null, bank, response.amount, response.balance);
+    }
+
+    /**
+     * Appends a record
+     *
+     * @param type    Kind of mutation
+     * @param result  Outcome reported by the economy
+     * @param player  Player of the account, null for bank transactions
+     * @param account World of a player account or name of a bank account
+     * @param amount  Amount modified by the mutation
+     * @param balance Balance of the account after the mutation
+     * @throws UncheckedIOException if a new segment could not be created
+     */
+    public synchronized void append(TransactionType type, ResponseType result, UUID player, String account, double amount, double balance) {
+        if (closed) {
+            throw new IllegalStateException("Journal is closed");
+        }
+        byte[] name = account == null ? null : account.getBytes(StandardCharsets.UTF_8);
+        int size = 4 + RECORD_SIZE + (name == null ? 0 : name.length);
+        if (size + 4 > segmentSize - HEADER_SIZE || name != null && name.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Account name is too long: " + account);
+        }
+        if (buffer.remaining() < size + 4) {
+            try {
+                rotate(size + 4);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        int start = buffer.position();
+        buffer.position(start + 4);
+        buffer.putLong(System.currentTimeMillis());
+        buffer.put((byte) type.getId());
+        buffer.put((byte) result.getId());
+        buffer.putLong(player == null ? 0 : player.getMostSignificantBits());
+        buffer.putLong(player == null ? 0 : player.getLeastSignificantBits());
+        buffer.putDouble(amount);
+        buffer.putDouble(balance);
+        if (name == null) {
+            buffer.putShort((short) -1);
+        } else {
+            buffer.putShort((short) name.length);
+            buffer.put(name);
+        }
+        // the length is written last so that readers never see a partially written record
+        buffer.putInt(start, size - 4);
+    }
+
+    /**
+     * Forces the rotated and the current segment to the storage device, and creates the next segment file if it does
+     * not exist yet. This blocks, do not call it from the main thread. Appending continues while this runs.
+     *
+     * @throws UncheckedIOException if the next segment could not be created
+     */
+    public void sync() {
+        List<MappedByteBuffer> full;
+        MappedByteBuffer current;
+        long prepare = -1;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            full = new ArrayList<>(retired);
+            retired.clear();
+            current = buffer;
+            if (next == null && !preparing) {
+                preparing = true;
+                prepare = ++reserved;
+            }
+        }
+        for (MappedByteBuffer segmentBuffer : full) {
+            segmentBuffer.force();
+        }
+        current.force();
+        if (prepare >= 0) {
+            MappedByteBuffer created = null;
+            try {
+                created = createSegment(prepare);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                synchronized (this) {
+                    next = created;
+                    preparing = false;
+                    notifyAll();
+                }
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            for (MappedByteBuffer segmentBuffer : retired) {
+                segmentBuffer.force();
+            }
+            retired.clear();
+            buffer.force();
+            closed = true;
+        }
+    }
+
+    private void rotate(int needed) throws IOException {
+        boolean interrupted = false;
+        while (preparing) {
+            // a sync() is creating the next segment, waiting for it is no slower than creating it here
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        // the monitor was released while waiting, another append may have rotated or the journal may be closed
+        if (closed) {
+            throw new IllegalStateException("Journal is closed");
+        }
+        if (buffer.remaining() >= needed) {
+            return;
+        }
+        buffer.putInt(buffer.position(), 0);
+        // forcing the full segment is left to sync(), so rotating never waits for the storage device
+        retired.add(buffer);
+        if (next == null) {
+            next = createSegment(++reserved);
+        }
+        segment = reserved;
+        buffer = next;
+        next = null;
+    }
+
+    private MappedByteBuffer createSegment(long index) throws IOException {
+        Path path = directory.resolve(String.format("%020d%s", index, SUFFIX));
+        MappedByteBuffer created;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            created = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+        created.putInt(MAGIC);
+        created.putShort(VERSION);
+        return created;
+    }
+}
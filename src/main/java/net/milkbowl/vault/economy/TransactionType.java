@@ -0,0 +1,59 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+/**
+ * Kinds of balance mutations made through an {@link Economy}
+ */
+public enum TransactionType {
+    DEPOSIT(1),
+    WITHDRAW(2),
+    BANK_CREATE(3),
+    BANK_DELETE(4),
+    BANK_DEPOSIT(5),
+    BANK_WITHDRAW(6);
+
+    private static final TransactionType[] BY_ID = new TransactionType[7];
+
+    static {
+        for (TransactionType type : values()) {
+            BY_ID[type.id] = type;
+        }
+    }
+
+    private final int id;
+
+    TransactionType(int id) {
+        this.id = id;
+    }
+
+    int getId() {
+        return id;
+    }
+
+    /**
+     * Checks if this transaction targets a bank account
+     *
+     * @return true for the bank transaction types
+     */
+    public boolean isBank() {
+        return this == BANK_CREATE || this == BANK_DELETE || this == BANK_DEPOSIT || this == BANK_WITHDRAW;
+    }
+
+    static TransactionType byId(int id) {
+        return id > 0 && id < BY_ID.length ? BY_ID[id] : null;
+    }
+}
@@ -0,0 +1,143 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.guard;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks the health of a service and rejects calls while it is failing.
+ * <p>
+ * The breaker starts {@link State#CLOSED}. After a number of consecutive failures it opens and rejects every call
+ * for the open duration, then lets a single probe call through. A successful probe closes the breaker again, a
+ * failed probe keeps it open for another open duration. Successes reported while the breaker is open come from calls
+ * started before it opened and are ignored. Safe for concurrent use.
+ */
+public class CircuitBreaker {
+
+    /**
+     * State of a CircuitBreaker
+     */
+    public enum State {
+        /**
+         * Calls are let through
+         */
+        CLOSED,
+        /**
+         * Calls are rejected
+         */
+        OPEN,
+        /**
+         * A single probe call is let through to test the service
+         */
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final AtomicInteger failures = new AtomicInteger();
+    private volatile State state = State.CLOSED;
+    private volatile long openedAt;
+
+    /**
+     * Constructor for CircuitBreaker
+     *
+     * @param failureThreshold number of consecutive failures that open the breaker
+     * @param openDuration     time the breaker stays open before probing
+     * @param unit             unit of <b>openDuration</b>
+     */
+    public CircuitBreaker(int failureThreshold, long openDuration, TimeUnit unit) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("failureThreshold must be positive: " + failureThreshold);
+        }
+        this.failureThreshold = failureThreshold;
+        this.openNanos = unit.toNanos(openDuration);
+    }
+
+    /**
+     * Gets the current state
+     *
+     * @return State of the breaker
+     */
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Asks to make a call. Every permitted call must be followed by {@link #onSuccess()} or {@link #onFailure()}.
+     *
+     * @return true if the call may be made, false if it must fail fast
+     */
+    public boolean tryAcquire() {
+        State current = state;
+        if (current == State.CLOSED) {
+            return true;
+        }
+        if (current == State.HALF_OPEN || System.nanoTime() - openedAt < openNanos) {
+            return false;
+        }
+        synchronized (this) {
+            if (state != State.OPEN || System.nanoTime() - openedAt < openNanos) {
+                return state == State.CLOSED;
+            }
+            state = State.HALF_OPEN;
+            return true;
+        }
+    }
+
+    /**
+     * Records a successful call, ignored while the breaker is open
+     */
+    public void onSuccess() {
+        State current = state;
+        if (current == State.OPEN) {
+            return;
+        }
+        if (current == State.HALF_OPEN) {
+            synchronized (this) {
+                if (state != State.HALF_OPEN) {
+                    return;
+                }
+                state = State.CLOSED;
+            }
+        }
+        if (failures.get() != 0) {
+            failures.set(0);
+        }
+    }
+
+    /**
+     * Records a failed or timed out call
+     */
+    public void onFailure() {
+        if (failures.incrementAndGet() >= failureThreshold || state == State.HALF_OPEN) {
+            synchronized (this) {
+                if (state != State.OPEN) {
+                    openedAt = System.nanoTime();
+                    state = State.OPEN;
+                }
+            }
+        }
+    }
+
+    /**
+     * Closes the breaker and forgets past failures
+     */
+    public synchronized void reset() {
+        failures.set(0);
+        state = State.CLOSED;
+    }
+}
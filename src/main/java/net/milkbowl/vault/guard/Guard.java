@@ -0,0 +1,167 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.guard;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Runs the calls of a guarded service on an executor, enforcing the deadlines and circuit breaker of a policy
+ */
+final class Guard {
+
+    private static final Logger log = Logger.getLogger("Minecraft");
+    private static final int STRIPES = 16;
+
+    private final String service;
+    private final GuardPolicy policy;
+    private final CircuitBreaker breaker;
+    private final Executor executor;
+    private final LastKnown[] lastKnown;
+
+    Guard(String service, GuardPolicy policy, Executor executor) {
+        this.service = service;
+        this.policy = policy.copy();
+        this.breaker = this.policy.newCircuitBreaker();
+        this.executor = executor;
+        // striped, so that remembering the result of every call does not serialize the callers on one lock
+        int capacity = this.policy.getLastKnownCapacity();
+        int stripes = Math.max(1, Math.min(STRIPES, capacity));
+        this.lastKnown = new LastKnown[stripes];
+        for (int i = 0; i < stripes; i++) {
+            lastKnown[i] = new LastKnown(capacity / stripes + (i < capacity % stripes ? 1 : 0));
+        }
+    }
+
+    CircuitBreaker getCircuitBreaker() {
+        return breaker;
+    }
+
+    /**
+     * Runs a call within the deadline of its method. Returns the fallback if the breaker is open, the deadline
+     * passes or the executor rejects the call. Exceptions thrown by the service are rethrown, and count as failures
+     * only if the policy classifies them as such, otherwise the call counts as answered.
+     */
+    <T> T call(String method, Callable<T> task, Supplier<T> fallback) {
+        if (!breaker.tryAcquire()) {
+            return fallback.get();
+        }
+        FutureTask<T> future = new FutureTask<>(task);
+        try {
+            executor.execute(future);
+            T result = future.get(policy.getTimeoutNanos(method), TimeUnit.NANOSECONDS);
+            breaker.onSuccess();
+            return result;
+        } catch (TimeoutException | RejectedExecutionException e) {
+            future.cancel(true);
+            failed(method, e instanceof TimeoutException ? "timed out" : "was rejected by the executor");
+            return fallback.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            // the outcome is unknown, count it as a failure so that a probe does not leave the breaker half open
+            breaker.onFailure();
+            Thread.currentThread().interrupt();
+            return fallback.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (policy.isFailure(cause)) {
+                failed(method, "failed: " + cause);
+            } else {
+                // the service answered, the caller is at fault, this also releases a half open probe
+                breaker.onSuccess();
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Remembers the last value read for a key, forgetting the least recently used keys above the capacity of the policy
+     */
+    void remember(Object key, Object value) {
+        LastKnown stripe = stripe(key);
+        synchronized (stripe) {
+            if (value == null) {
+                stripe.remove(key);
+            } else if (stripe.capacity > 0) {
+                stripe.put(key, value);
+            }
+        }
+    }
+
+    /**
+     * Gets the last value read for a key
+     */
+    @SuppressWarnings("unchecked")
+    <T> T recall(Object key) {
+        LastKnown stripe = stripe(key);
+        synchronized (stripe) {
+            return (T) stripe.get(key);
+        }
+    }
+
+    void forget(Object key) {
+        LastKnown stripe = stripe(key);
+        synchronized (stripe) {
+            stripe.remove(key);
+        }
+    }
+
+    private LastKnown stripe(Object key) {
+        int hash = key.hashCode();
+        return lastKnown[((hash ^ hash >>> 16) & Integer.MAX_VALUE) % lastKnown.length];
+    }
+
+    private void failed(String method, String reason) {
+        boolean wasOpen = breaker.getState() == CircuitBreaker.State.OPEN;
+        breaker.onFailure();
+        if (!wasOpen && breaker.getState() == CircuitBreaker.State.OPEN) {
+            log.warning(String.format("[%s] %s %s, failing fast until the service recovers", service, method, reason));
+        }
+    }
+
+    /**
+     * Least recently used values of one stripe, guarded by itself
+     */
+    private static final class LastKnown extends LinkedHashMap<Object, Object> {
+
+        private final int capacity;
+
+        private LastKnown(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object, Object> eldest) {
+            return size() > capacity;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.guard;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+
+/**
+ * Deadlines and circuit breaker settings of a guarded service.
+ * Deadlines are set per method name, for example {@code getBalance} or {@code playerHas}, all overloads of a method
+ * share its deadline. Configure the policy before passing it to a guard, later changes are not seen by the guard.
+ * <p>
+ * Timeouts always count towards the breaker. Exceptions thrown by the service only count if they are classified as
+ * failures, by default those caused by an {@link IOException} or {@link TimeoutException}, so that bad arguments
+ * from one plugin, such as an unknown account, cannot open the breaker for the whole server.
+ */
+public class GuardPolicy {
+
+    private final long defaultTimeoutNanos;
+    private final Map<String, Long> timeoutNanos = new HashMap<>();
+    private int failureThreshold = 5;
+    private long openNanos = TimeUnit.SECONDS.toNanos(10);
+    private int lastKnownCapacity = 10_000;
+    private Predicate<Throwable> failures = GuardPolicy::isUnavailable;
+
+    /**
+     * Constructor for GuardPolicy
+     *
+     * @param defaultTimeout deadline of methods without an own deadline
+     * @param unit           unit of <b>defaultTimeout</b>
+     */
+    public GuardPolicy(long defaultTimeout, TimeUnit unit) {
+        this.defaultTimeoutNanos = positive(unit.toNanos(defaultTimeout));
+    }
+
+    /**
+     * Sets the deadline of a method
+     *
+     * @param method  name of the method
+     * @param timeout deadline of the method
+     * @param unit    unit of <b>timeout</b>
+     * @return this policy
+     */
+    public GuardPolicy timeout(String method, long timeout, TimeUnit unit) {
+        timeoutNanos.put(method, positive(unit.toNanos(timeout)));
+        return this;
+    }
+
+    /**
+     * Sets when the circuit breaker opens and how long it stays open before probing
+     *
+     * @param failureThreshold number of consecutive failures or timeouts that open the breaker
+     * @param openDuration     time the breaker stays open
+     * @param unit             unit of <b>openDuration</b>
+     * @return this policy
+     */
+    public GuardPolicy breaker(int failureThreshold, long openDuration, TimeUnit unit) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("failureThreshold must be positive: " + failureThreshold);
+        }
+        this.failureThreshold = failureThreshold;
+        this.openNanos = unit.toNanos(openDuration);
+        return this;
+    }
+
+    /**
+     * Sets which exceptions thrown by the service count towards the circuit breaker.
+     * Exceptions that do not count are still rethrown to the caller.
+     *
+     * @param failures test of the exceptions that count as failures of the service
+     * @return this policy
+     */
+    public GuardPolicy failures(Predicate<Throwable> failures) {
+        if (failures == null) {
+            throw new IllegalArgumentException("failures must not be null");
+        }
+        this.failures = failures;
+        return this;
+    }
+
+    /**
+     * Sets the number of last known values kept to answer reads while the service is unavailable
+     *
+     * @param lastKnownCapacity maximum number of remembered values, 0 to always answer with a failure
+     * @return this policy
+     */
+    public GuardPolicy lastKnownCapacity(int lastKnownCapacity) {
+        if (lastKnownCapacity < 0) {
+            throw new IllegalArgumentException("lastKnownCapacity must not be negative: " + lastKnownCapacity);
+        }
+        this.lastKnownCapacity = lastKnownCapacity;
+        return this;
+    }
+
+    /**
+     * Gets the deadline of a method
+     *
+     * @param method name of the method
+     * @return deadline in nanoseconds
+     */
+    public long getTimeoutNanos(String method) {
+        Long timeout = timeoutNanos.get(method);
+        return timeout == null ? defaultTimeoutNanos : timeout;
+    }
+
+    /**
+     * Checks if an exception thrown by the service counts towards the circuit breaker
+     *
+     * @param exception thrown by the service
+     * @return true if the exception is a failure of the service rather than of the call
+     */
+    public boolean isFailure(Throwable exception) {
+        return failures.test(exception);
+    }
+
+    /**
+     * Gets the number of last known values kept
+     *
+     * @return maximum number of remembered values
+     */
+    public int getLastKnownCapacity() {
+        return lastKnownCapacity;
+    }
+
+    /**
+     * Creates a circuit breaker with the settings of this policy
+     *
+     * @return a closed CircuitBreaker
+     */
+    public CircuitBreaker newCircuitBreaker() {
+        return new CircuitBreaker(failureThreshold, openNanos, TimeUnit.NANOSECONDS);
+    }
+
+    GuardPolicy copy() {
+        GuardPolicy copy = new GuardPolicy(defaultTimeoutNanos, TimeUnit.NANOSECONDS);
+        copy.timeoutNanos.putAll(timeoutNanos);
+        copy.failureThreshold = failureThreshold;
+        copy.openNanos = openNanos;
+        copy.lastKnownCapacity = lastKnownCapacity;
+        copy.failures = failures;
+        return copy;
+    }
+
+    /**
+     * Default failure test, true if the exception or one of its causes is an I/O error or timeout
+     */
+    private static boolean isUnavailable(Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IOException || cause instanceof UncheckedIOException || cause instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long positive(long nanos) {
+        if (nanos <= 0) {
+            throw new IllegalArgumentException("Timeout must be positive");
+        }
+        return nanos;
+    }
+}
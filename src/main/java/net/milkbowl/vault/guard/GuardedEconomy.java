@@ -0,0 +1,259 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.guard;
+
+import net.milkbowl.vault.economy.Economy;
+import net.milkbowl.vault.economy.EconomyResponse;
+import net.milkbowl.vault.economy.EconomyResponse.ResponseType;
+import net.milkbowl.vault.economy.ForwardingEconomy;
+import org.bukkit.OfflinePlayer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+
+/**
+ * Guards an {@link Economy} that may stall, such as one backed by a remote database.
+ * <p>
+ * Every account and bank call runs on the given executor and is abandoned once the deadline of its method passes.
+ * Repeated failures open a {@link CircuitBreaker}, while it is open calls fail fast without reaching the economy.
+ * Balance reads then answer with the last balance read for the account, or 0 if none is known, mutations answer with
+ * {@link ResponseType#FAILURE}. Failed bank calls report the last balance read for the bank in the failure response.
+ * An abandoned mutation may still be applied by the economy after the failure response.
+ * <p>
+ * Use a dedicated executor with a bounded number of threads, threads stuck in the economy are not reclaimed until
+ * it answers. Metadata such as the name and the currency names is forwarded directly.
+ */
+public class GuardedEconomy extends ForwardingEconomy {
+
+    private static final String UNAVAILABLE = "Economy is unavailable";
+
+    private final Guard guard;
+
+    /**
+     * Constructor for GuardedEconomy
+     *
+     * @param delegate Economy to guard
+     * @param policy   deadlines and circuit breaker settings
+     * @param executor to run the calls on
+     */
+    public GuardedEconomy(Economy delegate, GuardPolicy policy, Executor executor) {
+        super(delegate);
+        this.guard = new Guard(delegate.getName(), policy, executor);
+    }
+
+    /**
+     * Gets the circuit breaker guarding the economy
+     *
+     * @return the CircuitBreaker
+     */
+    public CircuitBreaker getCircuitBreaker() {
+        return guard.getCircuitBreaker();
+    }
+
+    @Override
+    public boolean hasAccount(OfflinePlayer player) {
+        return hasAccount(player, null);
+    }
+
+    @Override
+    public boolean hasAccount(OfflinePlayer player, String worldName) {
+        AccountExists key = new AccountExists(player.getUniqueId(), worldName);
+        Boolean exists = guard.call("hasAccount",
+                () -> worldName == null ? delegate.hasAccount(player) : delegate.hasAccount(player, worldName),
+                () -> guard.recall(key));
+        if (exists == null) {
+            return false;
+        }
+        guard.remember(key, exists);
+        return exists;
+    }
+
+    @Override
+    public double getBalance(OfflinePlayer player) {
+        return getBalance(player, null);
+    }
+
+    @Override
+    public double getBalance(OfflinePlayer player, String world) {
+        return balance(player, world);
+    }
+
+    @Override
+    public boolean has(OfflinePlayer player, double amount) {
+        return has(player, null, amount);
+    }
+
+    @Override
+    public boolean has(OfflinePlayer player, String worldName, double amount) {
+        return guard.call("has",
+                () -> worldName == null ? delegate.has(player, amount) : delegate.has(player, worldName, amount),
+                () -> {
+                    Double balance = guard.recall(new Account(player.getUniqueId(), worldName));
+                    return balance != null && balance >= amount;
+                });
+    }
+
+    @Override
+    public EconomyResponse withdrawPlayer(OfflinePlayer player, double amount) {
+        return withdrawPlayer(player, null, amount);
+    }
+
+    @Override
+    public EconomyResponse withdrawPlayer(OfflinePlayer player, String worldName, double amount) {
+        return mutate("withdrawPlayer", player, worldName,
+                () -> worldName == null ? delegate.withdrawPlayer(player, amount) : delegate.withdrawPlayer(player, worldName, amount));
+    }
+
+    @Override
+    public EconomyResponse depositPlayer(OfflinePlayer player, double amount) {
+        return depositPlayer(player, null, amount);
+    }
+
+    @Override
+    public EconomyResponse depositPlayer(OfflinePlayer player, String worldName, double amount) {
+        return mutate("depositPlayer", player, worldName,
+                () -> worldName == null ? delegate.depositPlayer(player, amount) : delegate.depositPlayer(player, worldName, amount));
+    }
+
+    @Override
+    public EconomyResponse withdrawPlayer(String transactionId, OfflinePlayer player, String worldName, double amount) {
+        return mutate("withdrawPlayer", player, worldName,
+                () -> delegate.withdrawPlayer(transactionId, player, worldName, amount));
+    }
+
+    @Override
+    public EconomyResponse depositPlayer(String transactionId, OfflinePlayer player, String worldName, double amount) {
+        return mutate("depositPlayer", player, worldName,
+                () -> delegate.depositPlayer(transactionId, player, worldName, amount));
+    }
+
+    @Override
+    public EconomyResponse createBank(String name, OfflinePlayer player) {
+        return bank("createBank", name, () -> delegate.createBank(name, player));
+    }
+
+    @Override
+    public EconomyResponse deleteBank(String name) {
+        EconomyResponse response = bank("deleteBank", name, () -> delegate.deleteBank(name));
+        if (response.transactionSuccess()) {
+            guard.forget(new Bank(name));
+        }
+        return response;
+    }
+
+    @Override
+    public EconomyResponse bankBalance(String name) {
+        return bank("bankBalance", name, () -> delegate.bankBalance(name));
+    }
+
+    @Override
+    public EconomyResponse bankHas(String name, double amount) {
+        return bank("bankHas", name, () -> delegate.bankHas(name, amount));
+    }
+
+    @Override
+    public EconomyResponse bankWithdraw(String name, double amount) {
+        return bank("bankWithdraw", name, () -> delegate.bankWithdraw(name, amount));
+    }
+
+    @Override
+    public EconomyResponse bankDeposit(String name, double amount) {
+        return bank("bankDeposit", name, () -> delegate.bankDeposit(name, amount));
+    }
+
+    @Override
+    public EconomyResponse isBankOwner(String name, OfflinePlayer player) {
+        return guard.call("isBankOwner", () -> delegate.isBankOwner(name, player), () -> failure(0));
+    }
+
+    @Override
+    public EconomyResponse isBankMember(String name, OfflinePlayer player) {
+        return guard.call("isBankMember", () -> delegate.isBankMember(name, player), () -> failure(0));
+    }
+
+    @Override
+    public List<String> getBanks() {
+        return guard.call("getBanks", delegate::getBanks, () -> new ArrayList<>(0));
+    }
+
+    @Override
+    public boolean createPlayerAccount(OfflinePlayer player) {
+        return createPlayerAccount(player, null);
+    }
+
+    @Override
+    public boolean createPlayerAccount(OfflinePlayer player, String worldName) {
+        boolean created = guard.call("createPlayerAccount",
+                () -> worldName == null ? delegate.createPlayerAccount(player) : delegate.createPlayerAccount(player, worldName),
+                () -> false);
+        if (created) {
+            guard.remember(new AccountExists(player.getUniqueId(), worldName), true);
+        }
+        return created;
+    }
+
+    private double balance(OfflinePlayer player, String world) {
+        Account key = new Account(player.getUniqueId(), world);
+        Double balance = guard.call("getBalance",
+                () -> world == null ? delegate.getBalance(player) : delegate.getBalance(player, world),
+                () -> guard.recall(key));
+        if (balance == null) {
+            return 0;
+        }
+        guard.remember(key, balance);
+        return balance;
+    }
+
+    private EconomyResponse mutate(String method, OfflinePlayer player, String world, Callable<EconomyResponse> call) {
+        Account key = new Account(player.getUniqueId(), world);
+        EconomyResponse response = guard.call(method, call, () -> {
+            Double balance = guard.recall(key);
+            return failure(balance == null ? 0 : balance);
+        });
+        if (response.transactionSuccess()) {
+            guard.remember(key, response.balance);
+        }
+        return response;
+    }
+
+    private EconomyResponse bank(String method, String name, Callable<EconomyResponse> call) {
+        Bank key = new Bank(name);
+        EconomyResponse response = guard.call(method, call, () -> {
+            Double balance = guard.recall(key);
+            return failure(balance == null ? 0 : balance);
+        });
+        if (response.transactionSuccess()) {
+            guard.remember(key, response.balance);
+        }
+        return response;
+    }
+
+    private static EconomyResponse failure(double balance) {
+        return new EconomyResponse(0, balance, ResponseType.FAILURE, UNAVAILABLE);
+    }
+
+    private record Account(UUID uuid, String world) {
+    }
+
+    private record AccountExists(UUID uuid, String world) {
+    }
+
+    private record Bank(String name) {
+    }
+}
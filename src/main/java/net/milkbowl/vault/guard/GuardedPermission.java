@@ -0,0 +1,235 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.guard;
+
+import net.milkbowl.vault.permission.ForwardingPermission;
+import net.milkbowl.vault.permission.Permission;
+import net.milkbowl.vault.permission.PermissionKey;
+import org.bukkit.OfflinePlayer;
+
+import java.util.BitSet;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+
+/**
+ * Guards a {@link Permission} that may stall, such as one backed by a remote database.
+ * <p>
+ * Every player and group call runs on the given executor and is abandoned once the deadline of its method passes.
+ * Repeated failures open a {@link CircuitBreaker}, while it is open calls fail fast without reaching the permission
+ * plugin. Checks then answer with the last answer given for the same arguments, or false if none is known, lookups
+ * answer with their last known result and changes answer false. An abandoned change may still be applied later.
+ * Checks of many nodes at once are passed on as one call, and answered from the last known answers of their nodes.
+ * <p>
+ * Attachments and effective permissions work on online players and are forwarded directly on the calling thread.
+ */
+public class GuardedPermission extends ForwardingPermission {
+
+    private static final String[] NONE = new String[0];
+
+    private final Guard guard;
+
+    /**
+     * Constructor for GuardedPermission
+     *
+     * @param delegate Permission to guard
+     * @param policy   deadlines and circuit breaker settings
+     * @param executor to run the calls on
+     */
+    public GuardedPermission(Permission delegate, GuardPolicy policy, Executor executor) {
+        super(delegate);
+        this.guard = new Guard(delegate.getName(), policy, executor);
+    }
+
+    /**
+     * Gets the circuit breaker guarding the permission plugin
+     *
+     * @return the CircuitBreaker
+     */
+    public CircuitBreaker getCircuitBreaker() {
+        return guard.getCircuitBreaker();
+    }
+
+    @Override
+    public boolean playerHas(String worldName, OfflinePlayer player, String permission) {
+        return check("playerHas", new Check(worldName, player.getUniqueId(), null, permission),
+                () -> delegate.playerHas(worldName, player, permission));
+    }
+
+    @Override
+    public boolean playerHas(String worldName, OfflinePlayer player, PermissionKey permission) {
+        return check("playerHas", new Check(worldName, player.getUniqueId(), null, permission.node),
+                () -> delegate.playerHas(worldName, player, permission));
+    }
+
+    @Override
+    public BitSet playerHasMask(String worldName, OfflinePlayer player, String[] permissions) {
+        BitSet mask = guard.call("playerHasMask", () -> delegate.playerHasMask(worldName, player, permissions), () -> null);
+        if (mask == null) {
+            return recall(worldName, player.getUniqueId(), permissions);
+        }
+        for (int i = 0; i < permissions.length; i++) {
+            guard.remember(new Check(worldName, player.getUniqueId(), null, permissions[i]), mask.get(i));
+        }
+        return mask;
+    }
+
+    @Override
+    public BitSet playerHasMask(String worldName, OfflinePlayer player, PermissionKey[] permissions) {
+        BitSet mask = guard.call("playerHasMask", () -> delegate.playerHasMask(worldName, player, permissions), () -> null);
+        if (mask == null) {
+            return recall(worldName, player.getUniqueId(), nodes(permissions));
+        }
+        for (int i = 0; i < permissions.length; i++) {
+            guard.remember(new Check(worldName, player.getUniqueId(), null, permissions[i].node), mask.get(i));
+        }
+        return mask;
+    }
+
+    @Override
+    public boolean playerHasAny(String worldName, OfflinePlayer player, String[] permissions) {
+        Boolean any = guard.call("playerHasAny", () -> delegate.playerHasAny(worldName, player, permissions), () -> null);
+        return any != null ? any : !recall(worldName, player.getUniqueId(), permissions).isEmpty();
+    }
+
+    @Override
+    public boolean playerHasAny(String worldName, OfflinePlayer player, PermissionKey[] permissions) {
+        Boolean any = guard.call("playerHasAny", () -> delegate.playerHasAny(worldName, player, permissions), () -> null);
+        return any != null ? any : !recall(worldName, player.getUniqueId(), nodes(permissions)).isEmpty();
+    }
+
+    @Override
+    public boolean playerHasAll(String worldName, OfflinePlayer player, String[] permissions) {
+        Boolean all = guard.call("playerHasAll", () -> delegate.playerHasAll(worldName, player, permissions), () -> null);
+        return all != null ? all : recall(worldName, player.getUniqueId(), permissions).cardinality() == permissions.length;
+    }
+
+    @Override
+    public boolean playerHasAll(String worldName, OfflinePlayer player, PermissionKey[] permissions) {
+        Boolean all = guard.call("playerHasAll", () -> delegate.playerHasAll(worldName, player, permissions), () -> null);
+        return all != null ? all : recall(worldName, player.getUniqueId(), nodes(permissions)).cardinality() == permissions.length;
+    }
+
+    @Override
+    public boolean playerAdd(String worldName, OfflinePlayer player, String permission) {
+        return change("playerAdd", () -> delegate.playerAdd(worldName, player, permission));
+    }
+
+    @Override
+    public boolean playerRemove(String worldName, OfflinePlayer player, String permission) {
+        return change("playerRemove", () -> delegate.playerRemove(worldName, player, permission));
+    }
+
+    @Override
+    public boolean groupHas(String world, String group, String permission) {
+        return check("groupHas", new Check(world, null, group, permission), () -> delegate.groupHas(world, group, permission));
+    }
+
+    @Override
+    public boolean groupHas(String world, String group, PermissionKey permission) {
+        return check("groupHas", new Check(world, null, group, permission.node), () -> delegate.groupHas(world, group, permission));
+    }
+
+    @Override
+    public boolean groupAdd(String world, String group, String permission) {
+        return change("groupAdd", () -> delegate.groupAdd(world, group, permission));
+    }
+
+    @Override
+    public boolean groupRemove(String world, String group, String permission) {
+        return change("groupRemove", () -> delegate.groupRemove(world, group, permission));
+    }
+
+    @Override
+    public boolean playerInGroup(String world, OfflinePlayer player, String group) {
+        return check("playerInGroup", new Check(world, player.getUniqueId(), group, null),
+                () -> delegate.playerInGroup(world, player, group));
+    }
+
+    @Override
+    public boolean playerAddGroup(String world, OfflinePlayer player, String group) {
+        return change("playerAddGroup", () -> delegate.playerAddGroup(world, player, group));
+    }
+
+    @Override
+    public boolean playerRemoveGroup(String world, OfflinePlayer player, String group) {
+        return change("playerRemoveGroup", () -> delegate.playerRemoveGroup(world, player, group));
+    }
+
+    @Override
+    public String[] getPlayerGroups(String world, OfflinePlayer player) {
+        String[] groups = lookup("getPlayerGroups", new Lookup(world, player.getUniqueId(), false),
+                () -> delegate.getPlayerGroups(world, player));
+        return groups == null ? NONE : groups.clone();
+    }
+
+    @Override
+    public String getPrimaryGroup(String world, OfflinePlayer player) {
+        return lookup("getPrimaryGroup", new Lookup(world, player.getUniqueId(), true), () -> delegate.getPrimaryGroup(world, player));
+    }
+
+    @Override
+    public String[] getGroups() {
+        String[] groups = lookup("getGroups", new Lookup(null, null, false), delegate::getGroups);
+        return groups == null ? NONE : groups.clone();
+    }
+
+    private boolean check(String method, Check key, Callable<Boolean> call) {
+        Boolean result = guard.call(method, call, () -> guard.recall(key));
+        if (result == null) {
+            return false;
+        }
+        guard.remember(key, result);
+        return result;
+    }
+
+    /**
+     * Answers a check of many nodes from the last known answers, unknown nodes are not granted
+     */
+    private BitSet recall(String world, UUID player, String[] permissions) {
+        BitSet mask = new BitSet(permissions.length);
+        for (int i = 0; i < permissions.length; i++) {
+            if (Boolean.TRUE.equals(guard.recall(new Check(world, player, null, permissions[i])))) {
+                mask.set(i);
+            }
+        }
+        return mask;
+    }
+
+    private static String[] nodes(PermissionKey[] permissions) {
+        String[] nodes = new String[permissions.length];
+        for (int i = 0; i < permissions.length; i++) {
+            nodes[i] = permissions[i].node;
+        }
+        return nodes;
+    }
+
+    private boolean change(String method, Callable<Boolean> call) {
+        return guard.call(method, call, () -> false);
+    }
+
+    private <T> T lookup(String method, Lookup key, Callable<T> call) {
+        T result = guard.call(method, call, () -> guard.recall(key));
+        guard.remember(key, result);
+        return result;
+    }
+
+    private record Check(String world, UUID player, String group, String permission) {
+    }
+
+    private record Lookup(String world, UUID player, boolean primary) {
+    }
+}
@@ -0,0 +1,85 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.metrics;
+
+/**
+ * Copy of the latencies recorded by a {@link LatencyHistogram}
+ */
+public class HistogramSnapshot {
+
+    /**
+     * Number of recorded latencies
+     */
+    public final long count;
+    /**
+     * Sum of the recorded latencies in nanoseconds
+     */
+    public final long totalNanos;
+    /**
+     * Largest recorded latency in nanoseconds
+     */
+    public final long maxNanos;
+    private final long[] counts;
+
+    HistogramSnapshot(long[] counts, long count, long totalNanos, long maxNanos) {
+        this.counts = counts;
+        this.count = count;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+    }
+
+    /**
+     * Gets the mean latency
+     *
+     * @return mean latency in nanoseconds, 0 if nothing was recorded
+     */
+    public double mean() {
+        return count == 0 ? 0 : (double) totalNanos / count;
+    }
+
+    /**
+     * Gets the latency below which the given share of the recorded latencies fall
+     *
+     * @param percentile between 0 and 100
+     * @return latency in nanoseconds, at most 12.5% above the real value, 0 if nothing was recorded
+     */
+    public long percentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile must be between 0 and 100: " + percentile);
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(LatencyHistogram.upperBound(i), maxNanos);
+            }
+        }
+        return maxNanos;
+    }
+
+    /**
+     * Gets the number of latencies recorded in every bucket
+     *
+     * @return copy of the bucket counts
+     */
+    public long[] getCounts() {
+        return counts.clone();
+    }
+}
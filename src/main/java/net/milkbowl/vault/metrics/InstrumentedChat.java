@@ -0,0 +1,247 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.milkbowl.vault.metrics;
+
+import net.milkbowl.vault.chat.Chat;
+import net.milkbowl.vault.chat.ForwardingChat;
+import org.bukkit.OfflinePlayer;
+
+/**
+ * Records the calls made to a {@link Chat}.
+ * Every prefix, suffix, info node and group method is counted and timed in a {@link ServiceMetrics}, overloads share
+ * the statistics of their method name.
+ */
+public class InstrumentedChat extends ForwardingChat {
+
+    private final ServiceMetrics metrics;
+    private final MethodStats getPlayerPrefix;
+    private final MethodStats setPlayerPrefix;
+    private final MethodStats getPlayerSuffix;
+    private final MethodStats setPlayerSuffix;
+    private final MethodStats getGroupPrefix;
+    private final MethodStats setGroupPrefix;
+    private final MethodStats getGroupSuffix;
+    private final MethodStats setGroupSuffix;
+    private final MethodStats getPlayerInfoInteger;
+    private final MethodStats setPlayerInfoInteger;
+    private final MethodStats getGroupInfoInteger;
+    private final MethodStats setGroupInfoInteger;
+    private final MethodStats getPlayerInfoDouble;
+    private final MethodStats setPlayerInfoDouble;
+    private final MethodStats getGroupInfoDouble;
+    private final MethodStats setGroupInfoDouble;
+    private final MethodStats getPlayerInfoBoolean;
+    private final MethodStats setPlayerInfoBoolean;
+    private final MethodStats getGroupInfoBoolean;
+    private final MethodStats setGroupInfoBoolean;
+    private final MethodStats getPlayerInfoString;
+    private final MethodStats setPlayerInfoString;
+    private final MethodStats getGroupInfoString;
+    private final MethodStats setGroupInfoString;
+    private final MethodStats playerInGroup;
+    private final MethodStats getPlayerGroups;
+    private final MethodStats getPrimaryGroup;
+    private final MethodStats getGroups;
+
+    /**
+     * Constructor for InstrumentedChat
+     *
+     * @param delegate Chat to instrument
+     * @param metrics  to record the calls in
+     */
+    public InstrumentedChat(Chat delegate, ServiceMetrics metrics) {
+        super(delegate);
+        this.metrics = metrics;
+        this.getPlayerPrefix = metrics.method("getPlayerPrefix");
+        this.setPlayerPrefix = metrics.method("setPlayerPrefix");
+        this.getPlayerSuffix = metrics.method("getPlayerSuffix");
+        this.setPlayerSuffix = metrics.method("setPlayerSuffix");
+        this.getGroupPrefix = metrics.method("getGroupPrefix");
+        this.setGroupPrefix = metrics.method("setGroupPrefix");
+        this.getGroupSuffix = metrics.method("getGroupSuffix");
+        this.setGroupSuffix = metrics.method("setGroupSuffix");
+        this.getPlayerInfoInteger = metrics.method("getPlayerInfoInteger");
+        this.setPlayerInfoInteger = metrics.method("setPlayerInfoInteger");
+        this.getGroupInfoInteger = metrics.method("getGroupInfoInteger");
+        this.setGroupInfoInteger = metrics.method("setGroupInfoInteger");
+        this.getPlayerInfoDouble = metrics.method("getPlayerInfoDouble");
+        this.setPlayerInfoDouble = metrics.method("setPlayerInfoDouble");
+        this.getGroupInfoDouble = metrics.method("getGroupInfoDouble");
+        this.setGroupInfoDouble = metrics.method("setGroupInfoDouble");
+        this.getPlayerInfoBoolean = metrics.method("getPlayerInfoBoolean");
+        this.setPlayerInfoBoolean = metrics.method("setPlayerInfoBoolean");
+        this.getGroupInfoBoolean = metrics.method("getGroupInfoBoolean");
+        this.setGroupInfoBoolean = metrics.method("setGroupInfoBoolean");
+        this.getPlayerInfoString = metrics.method("getPlayerInfoString");
+        this.setPlayerInfoString = metrics.method("setPlayerInfoString");
+        this.getGroupInfoString = metrics.method("getGroupInfoString");
+        this.setGroupInfoString = metrics.method("setGroupInfoString");
+        this.playerInGroup = metrics.method("playerInGroup");
+        this.getPlayerGroups = metrics.method("getPlayerGroups");
+        this.getPrimaryGroup = metrics.method("getPrimaryGroup");
+        this.getGroups = metrics.method("getGroups");
+    }
+
+    /**
+     * Gets the statistics recorded for the chat plugin
+     *
+     * @return ServiceMetrics of the chat plugin
+     */
+    public ServiceMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public String getPlayerPrefix(String world, OfflinePlayer player) {
+        return getPlayerPrefix.time(() -> delegate.getPlayerPrefix(world, player));
+    }
+
+    @Override
+    public void setPlayerPrefix(String world, OfflinePlayer player, String prefix) {
+        setPlayerPrefix.time(() -> delegate.setPlayerPrefix(world, player, prefix));
+    }
+
+    @Override
+    public String getPlayerSuffix(String world, OfflinePlayer player) {
+        return getPlayerSuffix.time(() -> delegate.getPlayerSuffix(world, player));
+    }
+
+    @Override
+    public void setPlayerSuffix(String world, OfflinePlayer player, String suffix) {
+        setPlayerSuffix.time(() -> delegate.setPlayerSuffix(world, player, suffix));
+    }
+
+    @Override
+    public String getGroupPrefix(String world, String group) {
+        return getGroupPrefix.time(() -> delegate.getGroupPrefix(world, group));
+    }
+
+    @Override
+    public void setGroupPrefix(String world, String group, String prefix) {
+        setGroupPrefix.time(() -> delegate.setGroupPrefix(world, group, prefix));
+    }
+
+    @Override
+    public String getGroupSuffix(String world, String group) {
+        return getGroupSuffix.time(() -> delegate.getGroupSuffix(world, group));
+    }
+
+    @Override
+    public void setGroupSuffix(String world, String group, String suffix) {
+        setGroupSuffix.time(() -> delegate.setGroupSuffix(world, group, suffix));
+    }
+
+    @Override
+    public int getPlayerInfoInteger(String world, OfflinePlayer player, String node, int defaultValue) {
+        return getPlayerInfoInteger.time(() -> delegate.getPlayerInfoInteger(world, player, node, defaultValue));
+    }
+
+    @Override
+    public void setPlayerInfoInteger(String world, OfflinePlayer player, String node, int value) {
+        setPlayerInfoInteger.time(() -> delegate.setPlayerInfoInteger(world, player, node, value));
+    }
+
+    @Override
+    public int getGroupInfoInteger(String world, String group, String node, int defaultValue) {
+        return getGroupInfoInteger.time(() -> delegate.getGroupInfoInteger(world, group, node, defaultValue));
+    }
+
+    @Override
+    public void setGroupInfoInteger(String world, String group, String node, int value) {
+        setGroupInfoInteger.time(() -> delegate.setGroupInfoInteger(world, group, node, value));
+    }
+
+    @Override
+    public double getPlayerInfoDouble(String world, OfflinePlayer player, String node, double defaultValue) {
+        return getPlayerInfoDouble.time(() -> delegate.getPlayerInfoDouble(world, player, node, defaultValue));
+    }
+
+    @Override
+    public void setPlayerInfoDouble(String world, OfflinePlayer player, String node, double value) {
+        setPlayerInfoDouble.time(() -> delegate.setPlayerInfoDouble(world, player, node, value));
+    }
+
+    @Override
+    public double getGroupInfoDouble(String world, String group, String node, double defaultValue) {
+        return getGroupInfoDouble.time(() -> delegate.getGroupInfoDouble(world, group, node, defaultValue));
+    }
+
+    @Override
+    public void setGroupInfoDouble(String world, String group, String node, double value) {
+        setGroupInfoDouble.time(() -> delegate.setGroupInfoDouble(world, group, node, value));
+    }
+
+    @Override
+    public boolean getPlayerInfoBoolean(String world, OfflinePlayer player, String node, boolean defaultValue) {
+        return getPlayerInfoBoolean.time(() -> delegate.getPlayerInfoBoolean(world, player, node, defaultValue));
+    }
+
+    @Override
+    public void setPlayerInfoBoolean(String world, OfflinePlayer player, String node, boolean value) {
+        setPlayerInfoBoolean.time(() -> delegate.setPlayerInfoBoolean(world, player, node, value));
+    }
+
+    @Override
+    public boolean getGroupInfoBoolean(String world, String group, String node, boolean defaultValue) {
+        return getGroupInfoBoolean.time(() -> delegate.getGroupInfoBoolean(world, group, node, defaultValue));
+    }
+
+    @Override
+    public void setGroupInfoBoolean(String world, String group, String node, boolean value) {
+        setGroupInfoBoolean.time(() -> delegate.setGroupInfoBoolean(world, group, node, value));
+    }
+
+    @Override
+    public String getPlayerInfoString(String world, OfflinePlayer player, String node, String defaultValue) {
+        return getPlayerInfoString.time(() -> delegate.getPlayerInfoString(world, player, node, defaultValue));
+    }
+
+    @Override
+    public void setPlayerInfoString(String world, OfflinePlayer player, String node, String value) {
+        setPlayerInfoString.time(() -> delegate.setPlayerInfoString(world, player, node, value));
+    }
+
+    @Override
+    public String getGroupInfoString(String world, String group, String node, String defaultValue) {
+        return getGroupInfoString.time(() -> delegate.getGroupInfoString(world, group, node, defaultValue));
+    }
+
+    @Override
+    public void setGroupInfoString(String world, String group, String node, String value) {
+        setGroupInfoString.time(() -> delegate.setGroupInfoString(world, group, node, value));
+    }
+
+    @Override
+    public boolean playerInGroup(String world, OfflinePlayer player, String group) {
+        return playerInGroup.time(() -> delegate.playerInGroup(world, player, group));
+    }
+
+    @Override
+    public String[] getPlayerGroups(String world, OfflinePlayer player) {
+        return getPlayerGroups.time(() -> delegate.getPlayerGroups(world, player));
+    }
+
+    @Override
+    public String getPrimaryGroup(String world, OfflinePlayer player) {
+        return getPrimaryGroup.time(() -> delegate.getPrimaryGroup(world, player));
+    }
+
+    @Override
+    public String[] getGroups() {
+        return getGroups.time(() -> delegate.getGroups());
+    }
+}
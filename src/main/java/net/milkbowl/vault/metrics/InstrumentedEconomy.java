@@ -0,0 +1,201 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.milkbowl.vault.metrics;
+
+import net.milkbowl.vault.economy.Economy;
+import net.milkbowl.vault.economy.EconomyResponse;
+import net.milkbowl.vault.economy.ForwardingEconomy;
+import org.bukkit.OfflinePlayer;
+
+import java.util.List;
+
+/**
+ * Records the calls made to an {@link Economy}.
+ * <p>
+ * Every account and bank method is counted and timed in a {@link ServiceMetrics}, overloads share the statistics of
+ * their method name. Default methods run through this decorator, so a default {@code transfer} is recorded as the
+ * withdrawals and deposits it is made of. Metadata such as the name and the currency names is not recorded.
+ */
+public class InstrumentedEconomy extends ForwardingEconomy {
+
+    private final ServiceMetrics metrics;
+    private final MethodStats hasAccount;
+    private final MethodStats getBalance;
+    private final MethodStats has;
+    private final MethodStats withdrawPlayer;
+    private final MethodStats depositPlayer;
+    private final MethodStats createBank;
+    private final MethodStats deleteBank;
+    private final MethodStats bankBalance;
+    private final MethodStats bankHas;
+    private final MethodStats bankWithdraw;
+    private final MethodStats bankDeposit;
+    private final MethodStats isBankOwner;
+    private final MethodStats isBankMember;
+    private final MethodStats getBanks;
+    private final MethodStats createPlayerAccount;
+
+    /**
+     * Constructor for InstrumentedEconomy
+     *
+     * @param delegate Economy to instrument
+     * @param metrics  to record the calls in
+     */
+    public InstrumentedEconomy(Economy delegate, ServiceMetrics metrics) {
+        super(delegate);
+        this.metrics = metrics;
+        this.hasAccount = metrics.method("hasAccount");
+        this.getBalance = metrics.method("getBalance");
+        this.has = metrics.method("has");
+        this.withdrawPlayer = metrics.method("withdrawPlayer");
+        this.depositPlayer = metrics.method("depositPlayer");
+        this.createBank = metrics.method("createBank");
+        this.deleteBank = metrics.method("deleteBank");
+        this.bankBalance = metrics.method("bankBalance");
+        this.bankHas = metrics.method("bankHas");
+        this.bankWithdraw = metrics.method("bankWithdraw");
+        this.bankDeposit = metrics.method("bankDeposit");
+        this.isBankOwner = metrics.method("isBankOwner");
+        this.isBankMember = metrics.method("isBankMember");
+        this.getBanks = metrics.method("getBanks");
+        this.createPlayerAccount = metrics.method("createPlayerAccount");
+    }
+
+    /**
+     * Gets the statistics recorded for the economy
+     *
+     * @return ServiceMetrics of the economy
+     */
+    public ServiceMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public boolean hasAccount(OfflinePlayer player) {
+        return hasAccount.time(() -> delegate.hasAccount(player));
+    }
+
+    @Override
+    public boolean hasAccount(OfflinePlayer player, String worldName) {
+        return hasAccount.time(() -> delegate.hasAccount(player, worldName));
+    }
+
+    @Override
+    public double getBalance(OfflinePlayer player) {
+        return getBalance.time(() -> delegate.getBalance(player));
+    }
+
+    @Override
+    public double getBalance(OfflinePlayer player, String world) {
+        return getBalance.time(() -> delegate.getBalance(player, world));
+    }
+
+    @Override
+    public boolean has(OfflinePlayer player, double amount) {
+        return has.time(() -> delegate.has(player, amount));
+    }
+
+    @Override
+    public boolean has(OfflinePlayer player, String worldName, double amount) {
+        return has.time(() -> delegate.has(player, worldName, amount));
+    }
+
+    @Override
+    public EconomyResponse withdrawPlayer(OfflinePlayer player, double amount) {
+        return withdrawPlayer.time(() -> delegate.withdrawPlayer(player, amount));
+    }
+
+    @Override
+    public EconomyResponse withdrawPlayer(OfflinePlayer player, String worldName, double amount) {
+        return withdrawPlayer.time(() -> delegate.withdrawPlayer(player, worldName, amount));
+    }
+
+    @Override
+    public EconomyResponse depositPlayer(OfflinePlayer player, double amount) {
+        return depositPlayer.time(() -> delegate.depositPlayer(player, amount));
+    }
+
+    @Override
+    public EconomyResponse depositPlayer(OfflinePlayer player, String worldName, double amount) {
+        return depositPlayer.time(() -> delegate.depositPlayer(player, worldName, amount));
+    }
+
+    @Override
+    public EconomyResponse withdrawPlayer(String transactionId, OfflinePlayer player, String worldName, double amount) {
+        return withdrawPlayer.time(() -> delegate.withdrawPlayer(transactionId, player, worldName, amount));
+    }
+
+    @Override
+    public EconomyResponse depositPlayer(String transactionId, OfflinePlayer player, String worldName, double amount) {
+        return depositPlayer.time(() -> delegate.depositPlayer(transactionId, player, worldName, amount));
+    }
+
+    @Override
+    public EconomyResponse createBank(String name, OfflinePlayer player) {
+        return createBank.time(() -> delegate.createBank(name, player));
+    }
+
+    @Override
+    public EconomyResponse deleteBank(String name) {
+        return deleteBank.time(() -> delegate.deleteBank(name));
+    }
+
+    @Override
+    public EconomyResponse bankBalance(String name) {
+        return bankBalance.time(() -> delegate.bankBalance(name));
+    }
+
+    @Override
+    public EconomyResponse bankHas(String name, double amount) {
+        return bankHas.time(() -> delegate.bankHas(name, amount));
+    }
+
+    @Override
+    public EconomyResponse bankWithdraw(String name, double amount) {
+        return bankWithdraw.time(() -> delegate.bankWithdraw(name, amount));
+    }
+
+    @Override
+    public EconomyResponse bankDeposit(String name, double amount) {
+        return bankDeposit.time(() -> delegate.bankDeposit(name, amount));
+    }
+
+    @Override
+    public EconomyResponse isBankOwner(String name, OfflinePlayer player) {
+        return isBankOwner.time(() -> delegate.isBankOwner(name, player));
+    }
+
+    @Override
+    public EconomyResponse isBankMember(String name, OfflinePlayer player) {
+        return isBankMember.time(() -> delegate.isBankMember(name, player));
+    }
+
+    @Override
+    public List<String> getBanks() {
+        return getBanks.time(() -> delegate.getBanks());
+    }
+
+    @Override
+    public boolean createPlayerAccount(OfflinePlayer player) {
+        return createPlayerAccount.time(() -> delegate.createPlayerAccount(player));
+    }
+
+    @Override
+    public boolean createPlayerAccount(OfflinePlayer player, String worldName) {
+        return createPlayerAccount.time(() -> delegate.createPlayerAccount(player, worldName));
+    }
+}
@@ -0,0 +1,215 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.milkbowl.vault.metrics;
+
+import net.milkbowl.vault.permission.ForwardingPermission;
+import net.milkbowl.vault.permission.Permission;
+import net.milkbowl.vault.permission.PermissionKey;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.entity.Player;
+import org.bukkit.permissions.PermissionAttachment;
+import org.bukkit.permissions.PermissionAttachmentInfo;
+
+import java.util.BitSet;
+
+/**
+ * Records the calls made to a {@link Permission}.
+ * Every player, group and attachment method is counted and timed in a {@link ServiceMetrics}, overloads share the
+ * statistics of their method name.
+ */
+public class InstrumentedPermission extends ForwardingPermission {
+
+    private final ServiceMetrics metrics;
+    private final MethodStats playerHas;
+    private final MethodStats playerHasMask;
+    private final MethodStats playerHasAny;
+    private final MethodStats playerHasAll;
+    private final MethodStats playerAdd;
+    private final MethodStats playerRemove;
+    private final MethodStats groupHas;
+    private final MethodStats groupAdd;
+    private final MethodStats groupRemove;
+    private final MethodStats playerInGroup;
+    private final MethodStats playerAddGroup;
+    private final MethodStats playerRemoveGroup;
+    private final MethodStats getPlayerGroups;
+    private final MethodStats getPrimaryGroup;
+    private final MethodStats getGroups;
+    private final MethodStats addAttachment;
+    private final MethodStats removeAttachment;
+    private final MethodStats playerRemoveAttachment;
+    private final MethodStats getEffectivePermissions;
+
+    /**
+     * Constructor for InstrumentedPermission
+     *
+     * @param delegate Permission to instrument
+     * @param metrics  to record the calls in
+     */
+    public InstrumentedPermission(Permission delegate, ServiceMetrics metrics) {
+        super(delegate);
+        this.metrics = metrics;
+        this.playerHas = metrics.method("playerHas");
+        this.playerHasMask = metrics.method("playerHasMask");
+        this.playerHasAny = metrics.method("playerHasAny");
+        this.playerHasAll = metrics.method("playerHasAll");
+        this.playerAdd = metrics.method("playerAdd");
+        this.playerRemove = metrics.method("playerRemove");
+        this.groupHas = metrics.method("groupHas");
+        this.groupAdd = metrics.method("groupAdd");
+        this.groupRemove = metrics.method("groupRemove");
+        this.playerInGroup = metrics.method("playerInGroup");
+        this.playerAddGroup = metrics.method("playerAddGroup");
+        this.playerRemoveGroup = metrics.method("playerRemoveGroup");
+        this.getPlayerGroups = metrics.method("getPlayerGroups");
+        this.getPrimaryGroup = metrics.method("getPrimaryGroup");
+        this.getGroups = metrics.method("getGroups");
+        this.addAttachment = metrics.method("addAttachment");
+        this.removeAttachment = metrics.method("removeAttachment");
+        this.playerRemoveAttachment = metrics.method("playerRemoveAttachment");
+        this.getEffectivePermissions = metrics.method("getEffectivePermissions");
+    }
+
+    /**
+     * Gets the statistics recorded for the permission plugin
+     *
+     * @return ServiceMetrics of the permission plugin
+     */
+    public ServiceMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public boolean playerHas(String worldName, OfflinePlayer player, String permission) {
+        return playerHas.time(() -> delegate.playerHas(worldName, player, permission));
+    }
+
+    @Override
+    public boolean playerHas(String worldName, OfflinePlayer player, PermissionKey permission) {
+        return playerHas.time(() -> delegate.playerHas(worldName, player, permission));
+    }
+
+    @Override
+    public BitSet playerHasMask(String worldName, OfflinePlayer player, String[] permissions) {
+        return playerHasMask.time(() -> delegate.playerHasMask(worldName, player, permissions));
+    }
+
+    @Override
+    public BitSet playerHasMask(String worldName, OfflinePlayer player, PermissionKey[] permissions) {
+        return playerHasMask.time(() -> delegate.playerHasMask(worldName, player, permissions));
+    }
+
+    @Override
+    public boolean playerHasAny(String worldName, OfflinePlayer player, String[] permissions) {
+        return playerHasAny.time(() -> delegate.playerHasAny(worldName, player, permissions));
+    }
+
+    @Override
+    public boolean playerHasAny(String worldName, OfflinePlayer player, PermissionKey[] permissions) {
+        return playerHasAny.time(() -> delegate.playerHasAny(worldName, player, permissions));
+    }
+
+    @Override
+    public boolean playerHasAll(String worldName, OfflinePlayer player, String[] permissions) {
+        return playerHasAll.time(() -> delegate.playerHasAll(worldName, player, permissions));
+    }
+
+    @Override
+    public boolean playerHasAll(String worldName, OfflinePlayer player, PermissionKey[] permissions) {
+        return playerHasAll.time(() -> delegate.playerHasAll(worldName, player, permissions));
+    }
+
+    @Override
+    public boolean playerAdd(String worldName, OfflinePlayer player, String permission) {
+        return playerAdd.time(() -> delegate.playerAdd(worldName, player, permission));
+    }
+
+    @Override
+    public boolean playerRemove(String worldName, OfflinePlayer player, String permission) {
+        return playerRemove.time(() -> delegate.playerRemove(worldName, player, permission));
+    }
+
+    @Override
+    public boolean groupHas(String world, String group, String permission) {
+        return groupHas.time(() -> delegate.groupHas(world, group, permission));
+    }
+
+    @Override
+    public boolean groupHas(String world, String group, PermissionKey permission) {
+        return groupHas.time(() -> delegate.groupHas(world, group, permission));
+    }
+
+    @Override
+    public boolean groupAdd(String world, String group, String permission) {
+        return groupAdd.time(() -> delegate.groupAdd(world, group, permission));
+    }
+
+    @Override
+    public boolean groupRemove(String world, String group, String permission) {
+        return groupRemove.time(() -> delegate.groupRemove(world, group, permission));
+    }
+
+    @Override
+    public boolean playerInGroup(String world, OfflinePlayer player, String group) {
+        return playerInGroup.time(() -> delegate.playerInGroup(world, player, group));
+    }
+
+    @Override
+    public boolean playerAddGroup(String world, OfflinePlayer player, String group) {
+        return playerAddGroup.time(() -> delegate.playerAddGroup(world, player, group));
+    }
+
+    @Override
+    public boolean playerRemoveGroup(String world, OfflinePlayer player, String group) {
+        return playerRemoveGroup.time(() -> delegate.playerRemoveGroup(world, player, group));
+    }
+
+    @Override
+    public String[] getPlayerGroups(String world, OfflinePlayer player) {
+        return getPlayerGroups.time(() -> delegate.getPlayerGroups(world, player));
+    }
+
+    @Override
+    public String getPrimaryGroup(String world, OfflinePlayer player) {
+        return getPrimaryGroup.time(() -> delegate.getPrimaryGroup(world, player));
+    }
+
+    @Override
+    public String[] getGroups() {
+        return getGroups.time(() -> delegate.getGroups());
+    }
+
+    @Override
+    public PermissionAttachment addAttachment(Player player, String permission, boolean value) {
+        return addAttachment.time(() -> delegate.addAttachment(player, permission, value));
+    }
+
+    @Override
+    public PermissionAttachment removeAttachment(Player player, PermissionAttachment attachment) {
+        return removeAttachment.time(() -> delegate.removeAttachment(player, attachment));
+    }
+
+    @Override
+    public void playerRemoveAttachment(Player player, PermissionAttachment attachment) {
+        playerRemoveAttachment.time(() -> delegate.playerRemoveAttachment(player, attachment));
+    }
+
+    @Override
+    public PermissionAttachmentInfo[] getEffectivePermissions(Player player) {
+        return getEffectivePermissions.time(() -> delegate.getEffectivePermissions(player));
+    }
+}
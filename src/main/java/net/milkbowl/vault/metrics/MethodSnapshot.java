@@ -0,0 +1,54 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Copy of the calls recorded by a {@link MethodStats}
+ */
+public class MethodSnapshot {
+
+    /**
+     * Name of the method
+     */
+    public final String method;
+    /**
+     * Number of calls
+     */
+    public final long calls;
+    /**
+     * Number of calls that threw an exception
+     */
+    public final long errors;
+    /**
+     * Latencies of the calls
+     */
+    public final HistogramSnapshot latency;
+    /**
+     * Number of calls by name of the calling plugin, empty unless attribution is enabled
+     */
+    public final Map<String, Long> callsByPlugin;
+
+    MethodSnapshot(String method, long calls, long errors, HistogramSnapshot latency, Map<String, Long> callsByPlugin) {
+        this.method = method;
+        this.calls = calls;
+        this.errors = errors;
+        this.latency = latency;
+        this.callsByPlugin = Collections.unmodifiableMap(callsByPlugin);
+    }
+}
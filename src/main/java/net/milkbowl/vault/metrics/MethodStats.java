@@ -0,0 +1,163 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.metrics;
+
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Call count, error count and latencies of a single method
+ */
+public class MethodStats {
+
+    private static final String UNKNOWN = "unknown";
+    private static final StackWalker WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+    private static final ClassValue<String> PLUGINS = new ClassValue<>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            try {
+                return JavaPlugin.getProvidingPlugin(type).getName();
+            } catch (RuntimeException e) {
+                // not loaded by a plugin class loader
+                return UNKNOWN;
+            }
+        }
+    };
+
+    private final String method;
+    private final boolean attribute;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final ConcurrentHashMap<String, LongAdder> callsByPlugin = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for MethodStats
+     *
+     * @param method    name of the method
+     * @param attribute whether calls are attributed to the calling plugin, which walks the stack on every call
+     */
+    public MethodStats(String method, boolean attribute) {
+        this.method = method;
+        this.attribute = attribute;
+    }
+
+    /**
+     * Gets the name of the method
+     *
+     * @return name of the method
+     */
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * Runs a call and records it, as an error as well if it throws
+     *
+     * @param call to run
+     * @param <T>  result of the call
+     * @return result of the call
+     */
+    public <T> T time(Supplier<T> call) {
+        long start = System.nanoTime();
+        try {
+            return call.get();
+        } catch (RuntimeException | Error e) {
+            recordError();
+            throw e;
+        } finally {
+            record(start);
+        }
+    }
+
+    /**
+     * Runs a call without a result and records it, as an error as well if it throws
+     *
+     * @param call to run
+     */
+    public void time(Runnable call) {
+        time(() -> {
+            call.run();
+            return null;
+        });
+    }
+
+    /**
+     * Records a finished call
+     *
+     * @param startNanos {@link System#nanoTime()} when the call started
+     */
+    public void record(long startNanos) {
+        latency.record(System.nanoTime() - startNanos);
+        calls.increment();
+        if (attribute) {
+            callsByPlugin.computeIfAbsent(callingPlugin(), plugin -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * Records a call that threw an exception, in addition to {@link #record(long)}
+     */
+    public void recordError() {
+        errors.increment();
+    }
+
+    /**
+     * Removes the recorded calls
+     */
+    public void reset() {
+        calls.reset();
+        errors.reset();
+        latency.reset();
+        callsByPlugin.clear();
+    }
+
+    /**
+     * Takes a copy of the recorded calls
+     *
+     * @return MethodSnapshot of the calls recorded so far
+     */
+    public MethodSnapshot snapshot() {
+        Map<String, Long> plugins = new HashMap<>();
+        callsByPlugin.forEach((plugin, count) -> plugins.put(plugin, count.sum()));
+        return new MethodSnapshot(method, calls.sum(), errors.sum(), latency.snapshot(), plugins);
+    }
+
+    /**
+     * Finds the plugin of the first caller outside of the Vault API
+     */
+    private static String callingPlugin() {
+        return WALKER.walk(frames -> frames
+                .map(StackWalker.StackFrame::getDeclaringClass)
+                .filter(type -> !isApi(type.getName()))
+                .findFirst()
+                .map(PLUGINS::get)
+                .orElse(UNKNOWN));
+    }
+
+    private static boolean isApi(String name) {
+        return name.startsWith("net.milkbowl.vault.economy.")
+                || name.startsWith("net.milkbowl.vault.permission.")
+                || name.startsWith("net.milkbowl.vault.chat.")
+                || name.startsWith("net.milkbowl.vault.guard.")
+                || name.startsWith("net.milkbowl.vault.metrics.");
+    }
+}
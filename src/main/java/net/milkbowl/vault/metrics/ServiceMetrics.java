@@ -0,0 +1,184 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToDoubleFunction;
+import java.util.logging.Logger;
+
+/**
+ * Per-method statistics of an instrumented service.
+ * Can be read through {@link #snapshot()} or registered as an MXBean under
+ * {@code net.milkbowl.vault:type=ServiceMetrics,name=<service>}.
+ */
+public class ServiceMetrics implements ServiceMetricsMXBean {
+
+    private static final Logger log = Logger.getLogger("Minecraft");
+
+    private final String service;
+    private final boolean attributePlugins;
+    private final ConcurrentHashMap<String, MethodStats> methods = new ConcurrentHashMap<>();
+    private volatile ObjectName objectName;
+
+    /**
+     * Constructor for ServiceMetrics
+     *
+     * @param service          name of the service
+     * @param attributePlugins whether calls are attributed to the calling plugin, costing microseconds per call
+     */
+    public ServiceMetrics(String service, boolean attributePlugins) {
+        this.service = service;
+        this.attributePlugins = attributePlugins;
+    }
+
+    @Override
+    public String getService() {
+        return service;
+    }
+
+    /**
+     * Gets the statistics of a method, creating them on first use
+     *
+     * @param method name of the method
+     * @return MethodStats of the method
+     */
+    public MethodStats method(String method) {
+        return methods.computeIfAbsent(method, name -> new MethodStats(name, attributePlugins));
+    }
+
+    /**
+     * Takes a copy of the statistics of every method that was called
+     *
+     * @return MethodSnapshot of every called method, sorted by method name
+     */
+    public List<MethodSnapshot> snapshot() {
+        List<MethodSnapshot> snapshots = new ArrayList<>(methods.size());
+        for (MethodStats stats : new TreeMap<>(methods).values()) {
+            MethodSnapshot snapshot = stats.snapshot();
+            if (snapshot.calls > 0) {
+                snapshots.add(snapshot);
+            }
+        }
+        return snapshots;
+    }
+
+    @Override
+    public void reset() {
+        for (MethodStats stats : methods.values()) {
+            stats.reset();
+        }
+    }
+
+    /**
+     * Registers this as an MXBean with the platform MBean server, replacing an earlier registration of the service
+     *
+     * @return true if registered
+     */
+    public boolean register() {
+        try {
+            ObjectName name = new ObjectName("net.milkbowl.vault:type=ServiceMetrics,name=" + ObjectName.quote(service));
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(this, name);
+            objectName = name;
+            return true;
+        } catch (JMException e) {
+            log.warning(String.format("[%s] Could not register metrics MXBean: %s", service, e));
+            return false;
+        }
+    }
+
+    /**
+     * Unregisters this from the platform MBean server
+     */
+    public void unregister() {
+        ObjectName name = objectName;
+        if (name == null) {
+            return;
+        }
+        objectName = null;
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+        } catch (JMException e) {
+            // already unregistered
+        }
+    }
+
+    @Override
+    public Map<String, Long> getCalls() {
+        Map<String, Long> calls = new TreeMap<>();
+        for (MethodSnapshot snapshot : snapshot()) {
+            calls.put(snapshot.method, snapshot.calls);
+        }
+        return calls;
+    }
+
+    @Override
+    public Map<String, Long> getErrors() {
+        Map<String, Long> errors = new TreeMap<>();
+        for (MethodSnapshot snapshot : snapshot()) {
+            errors.put(snapshot.method, snapshot.errors);
+        }
+        return errors;
+    }
+
+    @Override
+    public Map<String, Double> getMeanMicros() {
+        return micros(HistogramSnapshot::mean);
+    }
+
+    @Override
+    public Map<String, Double> getP50Micros() {
+        return micros(latency -> latency.percentile(50));
+    }
+
+    @Override
+    public Map<String, Double> getP99Micros() {
+        return micros(latency -> latency.percentile(99));
+    }
+
+    @Override
+    public Map<String, Double> getMaxMicros() {
+        return micros(latency -> latency.maxNanos);
+    }
+
+    @Override
+    public Map<String, Long> getCallsByPlugin() {
+        Map<String, Long> calls = new TreeMap<>();
+        for (MethodSnapshot snapshot : snapshot()) {
+            snapshot.callsByPlugin.forEach((plugin, count) -> calls.put(plugin + "/" + snapshot.method, count));
+        }
+        return calls;
+    }
+
+    private Map<String, Double> micros(ToDoubleFunction<HistogramSnapshot> nanos) {
+        Map<String, Double> micros = new TreeMap<>();
+        for (MethodSnapshot snapshot : snapshot()) {
+            micros.put(snapshot.method, nanos.applyAsDouble(snapshot.latency) / 1000);
+        }
+        return micros;
+    }
+}
@@ -0,0 +1,85 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view of a {@link ServiceMetrics}, every attribute maps a method name to its value
+ */
+public interface ServiceMetricsMXBean {
+
+    /**
+     * Gets the name of the instrumented service
+     *
+     * @return name of the service
+     */
+    String getService();
+
+    /**
+     * Gets the number of calls per method
+     *
+     * @return calls by method name
+     */
+    Map<String, Long> getCalls();
+
+    /**
+     * Gets the number of calls that threw an exception per method
+     *
+     * @return errors by method name
+     */
+    Map<String, Long> getErrors();
+
+    /**
+     * Gets the mean latency per method
+     *
+     * @return mean latency in microseconds by method name
+     */
+    Map<String, Double> getMeanMicros();
+
+    /**
+     * Gets the median latency per method
+     *
+     * @return median latency in microseconds by method name
+     */
+    Map<String, Double> getP50Micros();
+
+    /**
+     * Gets the 99th percentile latency per method
+     *
+     * @return 99th percentile latency in microseconds by method name
+     */
+    Map<String, Double> getP99Micros();
+
+    /**
+     * Gets the largest latency per method
+     *
+     * @return largest latency in microseconds by method name
+     */
+    Map<String, Double> getMaxMicros();
+
+    /**
+     * Gets the number of calls per calling plugin and method, empty unless attribution is enabled
+     *
+     * @return calls by {@code plugin/method}
+     */
+    Map<String, Long> getCallsByPlugin();
+
+    /**
+     * Removes the recorded calls of every method
+     */
+    void reset();
+}
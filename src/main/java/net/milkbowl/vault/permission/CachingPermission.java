@@ -0,0 +1,437 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.permission;
+
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.entity.Player;
+import org.bukkit.permissions.PermissionAttachment;
+
+import java.util.BitSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches the decisions of {@link #playerHas(String, OfflinePlayer, String)} and the groups of
+ * {@link #getPlayerGroups(String, OfflinePlayer)} per player and world. Checks of many nodes at once are answered node
+ * by node from the cache, and {@link #playerInGroup(String, OfflinePlayer, String)} is answered from the cached groups.
+ * <p>
+ * Changes made through this decorator invalidate only the affected entries: player changes invalidate that player.
+ * Group changes reach every player in a group inheriting from the changed group, so they drop every entry unless the
+ * group inheritance is known through {@link #setGroupGraph(GroupGraph)}, in which case they invalidate only the players
+ * whose groups are or inherit from the changed group. Every cached entry carries the version it was loaded
+ * at, so {@link #invalidateAll()} only bumps the version and a decision loaded while a change was being made is never
+ * served afterwards. Changes made around Vault, such as by the commands of the permission plugin, are picked up once
+ * the entries expire or one of the invalidate methods is called.
+ * <p>
+ * The owner of the cache should call {@link #evictOffline()} regularly, for example from a repeating task, to drop the
+ * entries of players who left.
+ */
+public class CachingPermission extends ForwardingPermission {
+
+    private static final String GLOBAL = "";
+
+    private final long expireAfterNanos;
+    private final ConcurrentHashMap<UUID, PlayerEntry> players = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+    private volatile GroupGraph groupGraph;
+
+    /**
+     * Constructor for CachingPermission
+     *
+     * @param delegate    Permission to cache
+     * @param expireAfter time after which the cached entries of a player are reloaded
+     * @param unit        unit of <b>expireAfter</b>
+     */
+    public CachingPermission(Permission delegate, long expireAfter, TimeUnit unit) {
+        super(delegate);
+        this.expireAfterNanos = unit.toNanos(expireAfter);
+    }
+
+    @Override
+    public boolean playerHas(String worldName, OfflinePlayer player, String permission) {
+        WorldEntry entry = acquire(player.getUniqueId()).world(worldName);
+        Boolean cached = entry.decisions.get(permission);
+        if (cached != null) {
+            return cached;
+        }
+        boolean value = delegate.playerHas(worldName, player, permission);
+        entry.decisions.put(permission, value);
+        if (entry.groups == null) {
+            // the groups let a group change invalidate only its members
+            loadGroups(entry, worldName, player);
+        }
+        return value;
+    }
+
+    @Override
+    public boolean playerHas(String worldName, UUID player, String permission) {
+        WorldEntry entry = acquire(player).world(worldName);
+        Boolean cached = entry.decisions.get(permission);
+        if (cached != null) {
+            return cached;
+        }
+        // the groups are loaded by the next OfflinePlayer call, until then group changes invalidate the player
+        boolean value = delegate.playerHas(worldName, player, permission);
+        entry.decisions.put(permission, value);
+        return value;
+    }
+
+    @Override
+    public boolean playerHas(String worldName, OfflinePlayer player, PermissionKey permission) {
+        return playerHas(worldName, player, permission.node);
+    }
+
+    @Override
+    public BitSet playerHasMask(String worldName, OfflinePlayer player, String[] permissions) {
+        BitSet mask = new BitSet(permissions.length);
+        for (int i = 0; i < permissions.length; i++) {
+            if (playerHas(worldName, player, permissions[i])) {
+                mask.set(i);
+            }
+        }
+        return mask;
+    }
+
+    @Override
+    public BitSet playerHasMask(String worldName, OfflinePlayer player, PermissionKey[] permissions) {
+        BitSet mask = new BitSet(permissions.length);
+        for (int i = 0; i < permissions.length; i++) {
+            if (playerHas(worldName, player, permissions[i].node)) {
+                mask.set(i);
+            }
+        }
+        return mask;
+    }
+
+    @Override
+    public boolean playerHasAny(String worldName, OfflinePlayer player, String[] permissions) {
+        for (String permission : permissions) {
+            if (playerHas(worldName, player, permission)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean playerHasAny(String worldName, OfflinePlayer player, PermissionKey[] permissions) {
+        for (PermissionKey permission : permissions) {
+            if (playerHas(worldName, player, permission.node)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean playerHasAll(String worldName, OfflinePlayer player, String[] permissions) {
+        for (String permission : permissions) {
+            if (!playerHas(worldName, player, permission)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean playerHasAll(String worldName, OfflinePlayer player, PermissionKey[] permissions) {
+        for (PermissionKey permission : permissions) {
+            if (!playerHas(worldName, player, permission.node)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean playerInGroup(String world, OfflinePlayer player, String group) {
+        if (!delegate.hasGroupSupport()) {
+            return delegate.playerInGroup(world, player, group);
+        }
+        return getPlayerGroupSet(world, player).contains(group);
+    }
+
+    @Override
+    public String[] getPlayerGroups(String world, OfflinePlayer player) {
+        WorldEntry entry = acquire(player.getUniqueId()).world(world);
+        String[] groups = entry.groups;
+        if (groups == null) {
+            groups = loadGroups(entry, world, player);
+        }
+        return groups == null ? null : groups.clone();
+    }
+
+    @Override
+    public GroupSet getPlayerGroupSet(String world, OfflinePlayer player) {
+        WorldEntry entry = acquire(player.getUniqueId()).world(world);
+        GroupSet groups = entry.groupSet;
+        if (groups == null) {
+            loadGroups(entry, world, player);
+            groups = entry.groupSet;
+        }
+        return groups == null ? GroupSet.EMPTY : groups;
+    }
+
+    @Override
+    public boolean playerAdd(String worldName, OfflinePlayer player, String permission) {
+        try {
+            return delegate.playerAdd(worldName, player, permission);
+        } finally {
+            invalidatePlayer(player.getUniqueId());
+        }
+    }
+
+    @Override
+    public boolean playerRemove(String worldName, OfflinePlayer player, String permission) {
+        try {
+            return delegate.playerRemove(worldName, player, permission);
+        } finally {
+            invalidatePlayer(player.getUniqueId());
+        }
+    }
+
+    @Override
+    public boolean groupAdd(String world, String group, String permission) {
+        try {
+            return delegate.groupAdd(world, group, permission);
+        } finally {
+            invalidateGroup(group);
+        }
+    }
+
+    @Override
+    public boolean groupRemove(String world, String group, String permission) {
+        try {
+            return delegate.groupRemove(world, group, permission);
+        } finally {
+            invalidateGroup(group);
+        }
+    }
+
+    @Override
+    public boolean playerAddGroup(String world, OfflinePlayer player, String group) {
+        try {
+            return delegate.playerAddGroup(world, player, group);
+        } finally {
+            invalidatePlayer(player.getUniqueId());
+        }
+    }
+
+    @Override
+    public boolean playerRemoveGroup(String world, OfflinePlayer player, String group) {
+        try {
+            return delegate.playerRemoveGroup(world, player, group);
+        } finally {
+            invalidatePlayer(player.getUniqueId());
+        }
+    }
+
+    @Override
+    public PermissionAttachment addAttachment(Player player, String permission, boolean value) {
+        try {
+            return delegate.addAttachment(player, permission, value);
+        } finally {
+            invalidatePlayer(player.getUniqueId());
+        }
+    }
+
+    @Override
+    public PermissionAttachment removeAttachment(Player player, PermissionAttachment attachment) {
+        try {
+            return delegate.removeAttachment(player, attachment);
+        } finally {
+            invalidatePlayer(player.getUniqueId());
+        }
+    }
+
+    @Override
+    public void playerRemoveAttachment(Player player, PermissionAttachment attachment) {
+        try {
+            delegate.playerRemoveAttachment(player, attachment);
+        } finally {
+            invalidatePlayer(player.getUniqueId());
+        }
+    }
+
+    /**
+     * Drops the cached entries of a player
+     *
+     * @param uuid of the player
+     */
+    public void invalidatePlayer(UUID uuid) {
+        PlayerEntry entry = players.remove(uuid);
+        if (entry != null) {
+            entry.removed = true;
+        }
+    }
+
+    /**
+     * Sets the group inheritance of the wrapped permission, so group changes invalidate only the affected players.
+     * Must be replaced when the inheritance changes.
+     *
+     * @param graph compiled group inheritance, or null to drop every entry on group changes
+     */
+    public void setGroupGraph(GroupGraph graph) {
+        this.groupGraph = graph;
+    }
+
+    /**
+     * Drops the cached entries of every player in a group or in a group inheriting from it, in any world, and of every
+     * player whose groups are not cached yet. Without a {@link #setGroupGraph(GroupGraph) group graph} the inheritance
+     * is unknown, so every entry is dropped.
+     *
+     * @param group name of the group
+     */
+    public void invalidateGroup(String group) {
+        GroupGraph graph = groupGraph;
+        if (graph == null) {
+            invalidateAll();
+            return;
+        }
+        players.values().removeIf(entry -> {
+            if (entry.inGroup(group, graph)) {
+                entry.removed = true;
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Drops every cached entry
+     */
+    public void invalidateAll() {
+        version.incrementAndGet();
+        players.clear();
+    }
+
+    /**
+     * Drops the cached entries of players who are not online, and expired entries
+     *
+     * @return number of players whose entries were dropped
+     */
+    public int evictOffline() {
+        long now = System.nanoTime();
+        long current = version.get();
+        int evicted = 0;
+        for (PlayerEntry entry : players.values()) {
+            if (!entry.isValid(current, now, expireAfterNanos) || Bukkit.getPlayer(entry.uuid) == null) {
+                if (players.remove(entry.uuid, entry)) {
+                    entry.removed = true;
+                    evicted++;
+                }
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * Gets the number of players with cached entries
+     *
+     * @return number of cached players
+     */
+    public int size() {
+        return players.size();
+    }
+
+    private String[] loadGroups(WorldEntry entry, String world, OfflinePlayer player) {
+        String[] groups = delegate.hasGroupSupport() ? delegate.getPlayerGroups(world, player) : new String[0];
+        if (groups != null) {
+            // the cached array is never modified, so it can back the view
+            String[] cached = groups.clone();
+            entry.groupSet = GroupSet.of(cached);
+            entry.groups = cached;
+        }
+        return groups;
+    }
+
+    /**
+     * Gets the valid entry of a player, replacing a missing, outdated or expired entry
+     */
+    private PlayerEntry acquire(UUID uuid) {
+        while (true) {
+            // read the version before anything is loaded, so a concurrent invalidation outdates the new entry
+            long current = version.get();
+            long now = System.nanoTime();
+            PlayerEntry entry = players.get(uuid);
+            if (entry != null && entry.isValid(current, now, expireAfterNanos)) {
+                return entry;
+            }
+            PlayerEntry fresh = new PlayerEntry(uuid, current, now);
+            if (entry == null ? players.putIfAbsent(uuid, fresh) == null : players.replace(uuid, entry, fresh)) {
+                if (entry != null) {
+                    entry.removed = true;
+                }
+                return fresh;
+            }
+        }
+    }
+
+    private static final class PlayerEntry {
+
+        private final UUID uuid;
+        private final long version;
+        private final long loadedAt;
+        private final ConcurrentHashMap<String, WorldEntry> worlds = new ConcurrentHashMap<>();
+        private volatile boolean removed;
+
+        private PlayerEntry(UUID uuid, long version, long loadedAt) {
+            this.uuid = uuid;
+            this.version = version;
+            this.loadedAt = loadedAt;
+        }
+
+        private boolean isValid(long current, long now, long expireAfterNanos) {
+            return !removed && version == current && now - loadedAt <= expireAfterNanos;
+        }
+
+        private WorldEntry world(String world) {
+            return worlds.computeIfAbsent(world == null ? GLOBAL : world, key -> new WorldEntry());
+        }
+
+        /**
+         * Checks if the player may be in the group directly or through inheritance, which is the case while any of its
+         * groups are not cached
+         */
+        private boolean inGroup(String group, GroupGraph graph) {
+            if (worlds.isEmpty()) {
+                return false;
+            }
+            for (WorldEntry world : worlds.values()) {
+                String[] groups = world.groups;
+                if (groups == null) {
+                    return true;
+                }
+                for (String name : groups) {
+                    if (name.equalsIgnoreCase(group) || graph.inherits(name, group)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class WorldEntry {
+
+        private final ConcurrentHashMap<String, Boolean> decisions = new ConcurrentHashMap<>();
+        private volatile String[] groups;
+        private volatile GroupSet groupSet;
+    }
+}
@@ -0,0 +1,197 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.permission;
+
+import org.bukkit.OfflinePlayer;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.permissions.PermissionAttachment;
+import org.bukkit.permissions.PermissionAttachmentInfo;
+
+import java.util.BitSet;
+import java.util.Objects;
+
+/**
+ * Base class for {@link Permission} decorators.
+ * Every abstract Permission method is forwarded to the wrapped permission. Methods with an implementation in
+ * Permission are deliberately not forwarded, so that they are built on top of this decorator's own overrides.
+ * The exception are the checks of {@link PermissionKey compiled nodes} and of many nodes at once, which are forwarded
+ * so that an id indexed or single pass implementation of the wrapped permission is not lost. Subclasses that act on
+ * permission checks must override those as well.
+ */
+public abstract class ForwardingPermission extends Permission {
+
+    protected final Permission delegate;
+
+    protected ForwardingPermission(Permission delegate) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        this.plugin = delegate.plugin;
+    }
+
+    /**
+     * Gets the wrapped permission
+     *
+     * @return the wrapped Permission
+     */
+    public Permission getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return delegate.isEnabled();
+    }
+
+    @Override
+    public boolean hasSuperPermsCompat() {
+        return delegate.hasSuperPermsCompat();
+    }
+
+    @Override
+    public boolean playerHas(String worldName, OfflinePlayer player, String permission) {
+        return delegate.playerHas(worldName, player, permission);
+    }
+
+    @Override
+    public boolean has(CommandSender sender, PermissionKey permission) {
+        return delegate.has(sender, permission);
+    }
+
+    @Override
+    public boolean playerHas(String worldName, OfflinePlayer player, PermissionKey permission) {
+        return delegate.playerHas(worldName, player, permission);
+    }
+
+    @Override
+    public boolean groupHas(String world, String group, PermissionKey permission) {
+        return delegate.groupHas(world, group, permission);
+    }
+
+    @Override
+    public BitSet playerHasMask(String worldName, OfflinePlayer player, String[] permissions) {
+        return delegate.playerHasMask(worldName, player, permissions);
+    }
+
+    @Override
+    public BitSet playerHasMask(String worldName, OfflinePlayer player, PermissionKey[] permissions) {
+        return delegate.playerHasMask(worldName, player, permissions);
+    }
+
+    @Override
+    public boolean playerHasAny(String worldName, OfflinePlayer player, String[] permissions) {
+        return delegate.playerHasAny(worldName, player, permissions);
+    }
+
+    @Override
+    public boolean playerHasAny(String worldName, OfflinePlayer player, PermissionKey[] permissions) {
+        return delegate.playerHasAny(worldName, player, permissions);
+    }
+
+    @Override
+    public boolean playerHasAll(String worldName, OfflinePlayer player, String[] permissions) {
+        return delegate.playerHasAll(worldName, player, permissions);
+    }
+
+    @Override
+    public boolean playerHasAll(String worldName, OfflinePlayer player, PermissionKey[] permissions) {
+        return delegate.playerHasAll(worldName, player, permissions);
+    }
+
+    @Override
+    public boolean playerAdd(String worldName, OfflinePlayer player, String permission) {
+        return delegate.playerAdd(worldName, player, permission);
+    }
+
+    @Override
+    public boolean playerRemove(String worldName, OfflinePlayer player, String permission) {
+        return delegate.playerRemove(worldName, player, permission);
+    }
+
+    @Override
+    public boolean groupHas(String world, String group, String permission) {
+        return delegate.groupHas(world, group, permission);
+    }
+
+    @Override
+    public boolean groupAdd(String world, String group, String permission) {
+        return delegate.groupAdd(world, group, permission);
+    }
+
+    @Override
+    public boolean groupRemove(String world, String group, String permission) {
+        return delegate.groupRemove(world, group, permission);
+    }
+
+    @Override
+    public boolean playerInGroup(String world, OfflinePlayer player, String group) {
+        return delegate.playerInGroup(world, player, group);
+    }
+
+    @Override
+    public boolean playerAddGroup(String world, OfflinePlayer player, String group) {
+        return delegate.playerAddGroup(world, player, group);
+    }
+
+    @Override
+    public boolean playerRemoveGroup(String world, OfflinePlayer player, String group) {
+        return delegate.playerRemoveGroup(world, player, group);
+    }
+
+    @Override
+    public String[] getPlayerGroups(String world, OfflinePlayer player) {
+        return delegate.getPlayerGroups(world, player);
+    }
+
+    @Override
+    public String getPrimaryGroup(String world, OfflinePlayer player) {
+        return delegate.getPrimaryGroup(world, player);
+    }
+
+    @Override
+    public String[] getGroups() {
+        return delegate.getGroups();
+    }
+
+    @Override
+    public boolean hasGroupSupport() {
+        return delegate.hasGroupSupport();
+    }
+
+    @Override
+    public PermissionAttachment addAttachment(Player player, String permission, boolean value) {
+        return delegate.addAttachment(player, permission, value);
+    }
+
+    @Override
+    public PermissionAttachment removeAttachment(Player player, PermissionAttachment attachment) {
+        return delegate.removeAttachment(player, attachment);
+    }
+
+    @Override
+    public void playerRemoveAttachment(Player player, PermissionAttachment attachment) {
+        delegate.playerRemoveAttachment(player, attachment);
+    }
+
+    @Override
+    public PermissionAttachmentInfo[] getEffectivePermissions(Player player) {
+        return delegate.getEffectivePermissions(player);
+    }
+}
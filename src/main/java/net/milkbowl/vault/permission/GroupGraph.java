@@ -0,0 +1,243 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.permission;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compiled group inheritance of a permission plugin, for answering
+ * {@link Permission#playerInGroup(String, org.bukkit.OfflinePlayer, String)} and
+ * {@link Permission#getPlayerGroupSet(String, org.bukkit.OfflinePlayer)} without walking inheritance chains.
+ * <p>
+ * Every group gets an id below {@link #size()}, and the transitive closure of every group, the group itself and
+ * all groups it inherits from, is computed once as a bitset. Checking whether a group inherits another is a single bit
+ * test, and the closure of a group is a precomputed {@link GroupSet}. Group names are matched ignoring case, so
+ * names differing only in case are rejected when compiling rather than silently merged.
+ * Cycles in the inheritance are allowed. A graph never changes after it is compiled, compile a new one when the
+ * groups change. Safe for concurrent use.
+ */
+public final class GroupGraph {
+
+    private final String[] names;
+    private final Map<String, Integer> ids;
+    private final long[][] closures;
+    private final GroupSet[] sets;
+
+    private GroupGraph(String[] names, Map<String, Integer> ids, long[][] closures, int[][] orders) {
+        this.names = names;
+        this.ids = ids;
+        this.closures = closures;
+        this.sets = new GroupSet[names.length];
+        for (int group = 0; group < names.length; group++) {
+            String[] members = new String[orders[group].length];
+            for (int i = 0; i < members.length; i++) {
+                members[i] = names[orders[group][i]];
+            }
+            sets[group] = new GroupSet(this, closures[group], members);
+        }
+    }
+
+    /**
+     * Compiles the inheritance of groups
+     *
+     * @param parents direct parent groups by group name, groups only named as a parent are added without parents
+     * @return compiled GroupGraph
+     * @throws IllegalArgumentException if two group names differ only in case
+     */
+    public static GroupGraph compile(Map<String, ? extends Collection<String>> parents) {
+        List<String> names = new ArrayList<>();
+        Map<String, Integer> ids = new HashMap<>();
+        for (String group : parents.keySet()) {
+            add(group, names, ids);
+        }
+        for (Collection<String> groups : parents.values()) {
+            for (String group : groups) {
+                add(group, names, ids);
+            }
+        }
+        int size = names.size();
+        int[][] edges = new int[size][];
+        for (int group = 0; group < size; group++) {
+            edges[group] = new int[0];
+        }
+        for (Map.Entry<String, ? extends Collection<String>> entry : parents.entrySet()) {
+            int group = ids.get(key(entry.getKey()));
+            int[] direct = new int[entry.getValue().size()];
+            int i = 0;
+            for (String parent : entry.getValue()) {
+                direct[i++] = ids.get(key(parent));
+            }
+            edges[group] = direct;
+        }
+        long[][] closures = new long[size][];
+        int[][] orders = new int[size][];
+        int words = (size + 63) >>> 6;
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        int[] order = new int[size];
+        for (int group = 0; group < size; group++) {
+            // breadth first, so the order lists the nearest groups first
+            long[] closure = new long[words];
+            int count = 0;
+            closure[group >>> 6] |= 1L << group;
+            order[count++] = group;
+            queue.add(group);
+            while (!queue.isEmpty()) {
+                for (int parent : edges[queue.poll()]) {
+                    if ((closure[parent >>> 6] & 1L << parent) == 0) {
+                        closure[parent >>> 6] |= 1L << parent;
+                        order[count++] = parent;
+                        queue.add(parent);
+                    }
+                }
+            }
+            closures[group] = closure;
+            orders[group] = Arrays.copyOf(order, count);
+        }
+        return new GroupGraph(names.toArray(new String[0]), ids, closures, orders);
+    }
+
+    private static void add(String group, List<String> names, Map<String, Integer> ids) {
+        Integer id = ids.putIfAbsent(key(group), names.size());
+        if (id == null) {
+            names.add(group);
+        } else if (!names.get(id).equals(group)) {
+            throw new IllegalArgumentException("Groups " + names.get(id) + " and " + group + " differ only in case");
+        }
+    }
+
+    private static String key(String group) {
+        return group.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Gets the number of groups
+     *
+     * @return number of groups, every id is below this number
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Gets the id of a group
+     *
+     * @param group Group name
+     * @return id of the group, or -1 if the group is unknown
+     */
+    public int id(String group) {
+        Integer id = ids.get(key(group));
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Gets the name of a group
+     *
+     * @param group id of the group
+     * @return Group name, as it was given when compiling
+     */
+    public String name(int group) {
+        return names[group];
+    }
+
+    /**
+     * Checks if a group is or inherits from another group
+     *
+     * @param group    id of the group
+     * @param ancestor id of the possibly inherited group
+     * @return true if <b>ancestor</b> is in the closure of <b>group</b>
+     */
+    public boolean inherits(int group, int ancestor) {
+        return ancestor >= 0 && (closures[group][ancestor >>> 6] & 1L << ancestor) != 0;
+    }
+
+    /**
+     * Checks if a group is or inherits from another group
+     *
+     * @param group    Group name
+     * @param ancestor name of the possibly inherited group
+     * @return true if <b>ancestor</b> is in the closure of <b>group</b>, false if either group is unknown
+     */
+    public boolean inherits(String group, String ancestor) {
+        int id = id(group);
+        return id >= 0 && inherits(id, id(ancestor));
+    }
+
+    /**
+     * Gets the closure of a group, without allocating
+     *
+     * @param group id of the group
+     * @return GroupSet of the group followed by the groups it inherits from, nearest first
+     */
+    public GroupSet closure(int group) {
+        return sets[group];
+    }
+
+    /**
+     * Gets the closure of a group, without allocating
+     *
+     * @param group Group name
+     * @return GroupSet of the group followed by the groups it inherits from, or an empty set if the group is unknown
+     */
+    public GroupSet closure(String group) {
+        int id = id(group);
+        return id < 0 ? GroupSet.EMPTY : sets[id];
+    }
+
+    /**
+     * Gets the union of the closures of groups, such as the direct groups of a player.
+     * Allocates only when there is more than one known group, providers should keep the result per player.
+     *
+     * @param groups Group names, unknown groups are ignored
+     * @return GroupSet of the groups and the groups they inherit from, in the order of <b>groups</b>
+     */
+    public GroupSet closure(String... groups) {
+        GroupSet single = null;
+        int known = 0;
+        for (String group : groups) {
+            int id = id(group);
+            if (id >= 0) {
+                single = sets[id];
+                known++;
+            }
+        }
+        if (known <= 1) {
+            return single == null ? GroupSet.EMPTY : single;
+        }
+        long[] bits = new long[(names.length + 63) >>> 6];
+        List<String> members = new ArrayList<>();
+        for (String group : groups) {
+            int id = id(group);
+            if (id < 0) {
+                continue;
+            }
+            for (String member : sets[id]) {
+                int memberId = id(member);
+                if ((bits[memberId >>> 6] & 1L << memberId) == 0) {
+                    bits[memberId >>> 6] |= 1L << memberId;
+                    members.add(member);
+                }
+            }
+        }
+        return new GroupSet(this, bits, members.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,159 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.permission;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Read-only view of the groups of a player, returned by
+ * {@link Permission#getPlayerGroupSet(String, org.bukkit.OfflinePlayer)}.
+ * <p>
+ * A set taken from a {@link GroupGraph} includes the inherited groups and checks membership with a single bit test.
+ * A set wrapping plain group names checks membership by comparing the names. Either way the groups can be read by
+ * index without allocating, and {@link #get(int) get(0)} is the group the set was built from first.
+ */
+public final class GroupSet implements Iterable<String> {
+
+    /**
+     * A set without groups
+     */
+    public static final GroupSet EMPTY = new GroupSet(null, null, new String[0]);
+
+    private final GroupGraph graph;
+    private final long[] bits;
+    private final String[] names;
+
+    GroupSet(GroupGraph graph, long[] bits, String[] names) {
+        this.graph = graph;
+        this.bits = bits;
+        this.names = names;
+    }
+
+    /**
+     * Wraps group names without copying them, the array must not be modified afterwards
+     *
+     * @param groups names of the groups
+     * @return GroupSet of the names
+     */
+    public static GroupSet of(String... groups) {
+        return groups.length == 0 ? EMPTY : new GroupSet(null, null, groups);
+    }
+
+    /**
+     * Checks if the set contains a group, ignoring case
+     *
+     * @param group Group name
+     * @return true if the group is in the set
+     */
+    public boolean contains(String group) {
+        if (graph != null) {
+            return contains(graph.id(group));
+        }
+        for (String name : names) {
+            if (name.equalsIgnoreCase(group)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if the set contains a group by its id in {@link #getGraph()}
+     *
+     * @param group id of the group
+     * @return true if the group is in the set, false if the set is not taken from a graph
+     */
+    public boolean contains(int group) {
+        if (bits == null || group < 0) {
+            return false;
+        }
+        int word = group >>> 6;
+        return word < bits.length && (bits[word] & 1L << group) != 0;
+    }
+
+    /**
+     * Gets the number of groups
+     *
+     * @return number of groups in the set
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Checks if the set has no groups
+     *
+     * @return true if the set is empty
+     */
+    public boolean isEmpty() {
+        return names.length == 0;
+    }
+
+    /**
+     * Gets a group by index
+     *
+     * @param index of the group, below {@link #size()}
+     * @return name of the group
+     */
+    public String get(int index) {
+        return names[index];
+    }
+
+    /**
+     * Gets the graph the set was taken from
+     *
+     * @return GroupGraph of the set, or null if the set wraps plain group names
+     */
+    public GroupGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Copies the groups into an array, as returned by {@link Permission#getPlayerGroups(String, org.bukkit.OfflinePlayer)}
+     *
+     * @return Array of groups
+     */
+    public String[] toArray() {
+        return names.clone();
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return new Iterator<>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < names.length;
+            }
+
+            @Override
+            public String next() {
+                if (index >= names.length) {
+                    throw new NoSuchElementException();
+                }
+                return names[index++];
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(names);
+    }
+}
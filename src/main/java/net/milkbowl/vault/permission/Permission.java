@@ -1,5 +1,6 @@
 package net.milkbowl.vault.permission;
 
+import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
@@ -7,6 +8,8 @@ import org.bukkit.permissions.PermissionAttachment;
 import org.bukkit.permissions.PermissionAttachmentInfo;
 import org.bukkit.plugin.Plugin;
 
+import java.util.BitSet;
+import java.util.UUID;
 import java.util.logging.Logger;
 
 /**
@@ -51,26 +54,213 @@ public abstract class Permission {
         return sender.hasPermission(permission);
     }
 
+    /**
+     * Checks if a CommandSender has a compiled permission node.
+     * This will return the result of bukkit's generic .hasPermission() method, like {@link #has(CommandSender, String)}.
+     *
+     * @param sender     to check permissions on
+     * @param permission to check for
+     * @return true if has permission
+     */
+    public boolean has(CommandSender sender, PermissionKey permission) {
+        return sender.hasPermission(permission.node);
+    }
+
     public abstract boolean playerHas(String worldName, OfflinePlayer player, String permission);
 
+    /**
+     * Checks if a player by UUID has a permission node.
+     * The default implementation resolves the player through {@link Bukkit#getOfflinePlayer(UUID)}, which may block
+     * on a profile lookup. Permission plugins keyed by UUID should override the UUID methods to skip the resolution.
+     *
+     * @param worldName  World name
+     * @param player     UUID of the player
+     * @param permission to check for
+     * @return true if has permission
+     */
+    public boolean playerHas(String worldName, UUID player, String permission) {
+        return playerHas(worldName, Bukkit.getOfflinePlayer(player), permission);
+    }
+
+    /**
+     * Checks if a player has a compiled permission node.
+     * The default implementation checks {@link PermissionKey#node}. Permission plugins can override this to look the
+     * node up by {@link PermissionKey#id} or in a {@link PermissionTrie}.
+     *
+     * @param worldName  World name
+     * @param player     to check
+     * @param permission to check for
+     * @return true if has permission
+     */
+    public boolean playerHas(String worldName, OfflinePlayer player, PermissionKey permission) {
+        return playerHas(worldName, player, permission.node);
+    }
+
+    /**
+     * Checks many permission nodes of a player at once, for example to build a menu.
+     * The default implementation checks every node with {@link #playerHas(String, OfflinePlayer, String)}.
+     * Permission plugins can override this to check all nodes in one pass over the player's resolved nodes.
+     *
+     * @param worldName   World name
+     * @param player      to check
+     * @param permissions to check for
+     * @return BitSet with bit <i>i</i> set if the player has <b>permissions[i]</b>
+     */
+    public BitSet playerHasMask(String worldName, OfflinePlayer player, String[] permissions) {
+        BitSet mask = new BitSet(permissions.length);
+        for (int i = 0; i < permissions.length; i++) {
+            if (playerHas(worldName, player, permissions[i])) {
+                mask.set(i);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Checks many compiled permission nodes of a player at once.
+     * The default implementation checks every node with {@link #playerHas(String, OfflinePlayer, PermissionKey)}.
+     *
+     * @param worldName   World name
+     * @param player      to check
+     * @param permissions to check for
+     * @return BitSet with bit <i>i</i> set if the player has <b>permissions[i]</b>
+     */
+    public BitSet playerHasMask(String worldName, OfflinePlayer player, PermissionKey[] permissions) {
+        BitSet mask = new BitSet(permissions.length);
+        for (int i = 0; i < permissions.length; i++) {
+            if (playerHas(worldName, player, permissions[i])) {
+                mask.set(i);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Checks if a player has at least one of the permission nodes, stopping at the first granted node.
+     *
+     * @param worldName   World name
+     * @param player      to check
+     * @param permissions to check for
+     * @return true if has any of the permissions, false if <b>permissions</b> is empty
+     */
+    public boolean playerHasAny(String worldName, OfflinePlayer player, String[] permissions) {
+        for (String permission : permissions) {
+            if (playerHas(worldName, player, permission)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if a player has at least one of the compiled permission nodes, stopping at the first granted node.
+     *
+     * @param worldName   World name
+     * @param player      to check
+     * @param permissions to check for
+     * @return true if has any of the permissions, false if <b>permissions</b> is empty
+     */
+    public boolean playerHasAny(String worldName, OfflinePlayer player, PermissionKey[] permissions) {
+        for (PermissionKey permission : permissions) {
+            if (playerHas(worldName, player, permission)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if a player has all of the permission nodes, stopping at the first missing node.
+     *
+     * @param worldName   World name
+     * @param player      to check
+     * @param permissions to check for
+     * @return true if has all of the permissions, true if <b>permissions</b> is empty
+     */
+    public boolean playerHasAll(String worldName, OfflinePlayer player, String[] permissions) {
+        for (String permission : permissions) {
+            if (!playerHas(worldName, player, permission)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if a player has all of the compiled permission nodes, stopping at the first missing node.
+     *
+     * @param worldName   World name
+     * @param player      to check
+     * @param permissions to check for
+     * @return true if has all of the permissions, true if <b>permissions</b> is empty
+     */
+    public boolean playerHasAll(String worldName, OfflinePlayer player, PermissionKey[] permissions) {
+        for (PermissionKey permission : permissions) {
+            if (!playerHas(worldName, player, permission)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public abstract boolean playerAdd(String worldName, OfflinePlayer player, String permission);
 
     public abstract boolean playerRemove(String worldName, OfflinePlayer player, String permission);
 
     public abstract boolean groupHas(String world, String group, String permission);
 
+    /**
+     * Checks if a group has a compiled permission node.
+     * The default implementation checks {@link PermissionKey#node}.
+     *
+     * @param world      World name
+     * @param group      Group name
+     * @param permission to check for
+     * @return true if the group has the permission
+     */
+    public boolean groupHas(String world, String group, PermissionKey permission) {
+        return groupHas(world, group, permission.node);
+    }
+
     public abstract boolean groupAdd(String world, String group, String permission);
 
     public abstract boolean groupRemove(String world, String group, String permission);
 
     public abstract boolean playerInGroup(String world, OfflinePlayer player, String group);
 
+    /**
+     * Checks if a player by UUID is member of a group.
+     *
+     * @param world  World name
+     * @param player UUID of the player
+     * @param group  Group name
+     * @return true if the player is member of the group
+     */
+    public boolean playerInGroup(String world, UUID player, String group) {
+        return playerInGroup(world, Bukkit.getOfflinePlayer(player), group);
+    }
+
     public abstract boolean playerAddGroup(String world, OfflinePlayer player, String group);
 
     public abstract boolean playerRemoveGroup(String world, OfflinePlayer player, String group);
 
     public abstract String[] getPlayerGroups(String world, OfflinePlayer player);
 
+    /**
+     * Gets the groups of a player as a read-only view.
+     * The default implementation wraps {@link #getPlayerGroups(String, OfflinePlayer)}. Permission plugins that
+     * resolve inheritance with a {@link GroupGraph} can override this to return a precomputed closure without
+     * allocating, which also makes {@link GroupSet#contains(String)} a single bit test.
+     *
+     * @param world  World name
+     * @param player to get the groups of
+     * @return GroupSet of the player's groups
+     */
+    public GroupSet getPlayerGroupSet(String world, OfflinePlayer player) {
+        String[] groups = getPlayerGroups(world, player);
+        return groups == null ? GroupSet.EMPTY : GroupSet.of(groups);
+    }
+
     public abstract String getPrimaryGroup(String world, OfflinePlayer player);
 
     public abstract String[] getGroups();
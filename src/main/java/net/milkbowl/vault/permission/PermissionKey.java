@@ -0,0 +1,85 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.permission;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A permission node compiled once, to be checked many times.
+ * <p>
+ * Plugins compile the nodes they check into constants with {@link #of(String)} and pass them to
+ * {@link Permission#has(org.bukkit.command.CommandSender, PermissionKey)},
+ * {@link Permission#playerHas(String, org.bukkit.OfflinePlayer, PermissionKey)} and
+ * {@link Permission#groupHas(String, String, PermissionKey)}. There is only one key per node, so keys can be compared
+ * by identity, and every key has a small id counting up from 0 that permission plugins can use to index arrays or
+ * primitive maps instead of hashing the node. Keys are never released, so only compile nodes from a bounded set.
+ */
+public final class PermissionKey {
+
+    private static final ConcurrentHashMap<String, PermissionKey> KEYS = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+    /**
+     * Id of the key, unique and stable for the lifetime of the server
+     */
+    public final int id;
+    /**
+     * Node of the key, in lower case
+     */
+    public final String node;
+    final int[] segments;
+
+    private PermissionKey(int id, String node) {
+        this.id = id;
+        this.node = node;
+        this.segments = PermissionTrie.split(node);
+    }
+
+    /**
+     * Gets the key of a node, compiling it on first use. Nodes differing only in case share a key.
+     *
+     * @param node permission node, such as {@code essentials.home}
+     * @return PermissionKey of the node
+     */
+    public static PermissionKey of(String node) {
+        PermissionKey key = KEYS.get(node);
+        if (key != null) {
+            return key;
+        }
+        String lower = node.toLowerCase(Locale.ROOT);
+        key = KEYS.computeIfAbsent(lower, name -> new PermissionKey(NEXT_ID.getAndIncrement(), name));
+        if (!lower.equals(node)) {
+            KEYS.putIfAbsent(node, key);
+        }
+        return key;
+    }
+
+    /**
+     * Gets the number of keys compiled so far, every id is below this number
+     *
+     * @return number of keys
+     */
+    public static int count() {
+        return NEXT_ID.get();
+    }
+
+    @Override
+    public String toString() {
+        return node;
+    }
+}
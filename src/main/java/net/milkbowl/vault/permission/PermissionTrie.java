@@ -0,0 +1,387 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.permission;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compiled set of permission nodes of a player or group, for permission plugins to answer
+ * {@link Permission#playerHas(String, org.bukkit.OfflinePlayer, String)} and
+ * {@link Permission#groupHas(String, String, String)} without string matching.
+ * <p>
+ * Nodes are split at dots into segments, and every distinct segment is interned to an int shared by all tries.
+ * A node ending in {@code .*} grants or denies everything below it, {@code *} alone applies to every node, and a
+ * node starting with {@code -} is negated. An explicitly set node wins over wildcards, and a deeper wildcard wins
+ * over a shallower one, so {@code -essentials.home.*} overrides {@code essentials.*}. Nodes are matched ignoring case.
+ * <p>
+ * Wildcards are resolved when the trie is compiled, so a lookup is one walk down the trie. Split a node once with
+ * {@link #split(String)}, or compile it into a {@link PermissionKey}, to check it without allocating.
+ * A trie never changes after it is compiled, compile a new one when the nodes change. Safe for concurrent use.
+ */
+public final class PermissionTrie {
+
+    /**
+     * Outcome of a lookup
+     */
+    public enum Result {
+        /**
+         * The node is granted
+         */
+        TRUE,
+        /**
+         * The node is denied
+         */
+        FALSE,
+        /**
+         * The node is neither granted nor denied, the permission plugin decides the default
+         */
+        UNDEFINED;
+
+        /**
+         * Gets the result as a boolean
+         *
+         * @param undefined value to use for {@link #UNDEFINED}
+         * @return true if granted, false if denied, <b>undefined</b> otherwise
+         */
+        public boolean toBoolean(boolean undefined) {
+            return this == UNDEFINED ? undefined : this == TRUE;
+        }
+    }
+
+    private static final byte UNSET = 0;
+    private static final byte GRANTED = 1;
+    private static final byte DENIED = 2;
+    private static final Result[] RESULTS = {Result.UNDEFINED, Result.TRUE, Result.FALSE};
+    private static final int[] NO_KEYS = new int[0];
+    private static final ConcurrentHashMap<String, Integer> SEGMENTS = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_SEGMENT = new AtomicInteger();
+    static final int WILDCARD = intern("*");
+
+    /**
+     * An empty trie, every lookup is {@link Result#UNDEFINED}
+     */
+    public static final PermissionTrie EMPTY = compile(new HashMap<>());
+
+    // node 0 is the root, the children of a node are sorted by segment id
+    private final int[][] childKeys;
+    private final int[][] children;
+    private final byte[] exact;
+    private final byte[] inherited;
+
+    private PermissionTrie(int[][] childKeys, int[][] children, byte[] exact, byte[] inherited) {
+        this.childKeys = childKeys;
+        this.children = children;
+        this.exact = exact;
+        this.inherited = inherited;
+    }
+
+    /**
+     * Compiles a list of nodes, nodes starting with {@code -} are denied and the others granted.
+     * A node listed both granted and denied is denied.
+     *
+     * @param nodes to compile
+     * @return compiled PermissionTrie
+     */
+    public static PermissionTrie compile(Collection<String> nodes) {
+        Map<String, Boolean> values = new HashMap<>();
+        for (String node : nodes) {
+            if (node.startsWith("-")) {
+                values.put(node.substring(1), false);
+            } else {
+                values.putIfAbsent(node, true);
+            }
+        }
+        return compile(values);
+    }
+
+    /**
+     * Compiles nodes with their values, a leading {@code -} negates the value
+     *
+     * @param nodes to compile
+     * @return compiled PermissionTrie
+     */
+    public static PermissionTrie compile(Map<String, Boolean> nodes) {
+        Builder builder = new Builder();
+        for (Map.Entry<String, Boolean> entry : nodes.entrySet()) {
+            String node = entry.getKey();
+            boolean value = entry.getValue();
+            if (node.startsWith("-")) {
+                node = node.substring(1);
+                value = !value;
+            }
+            builder.add(split(node), value ? GRANTED : DENIED);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Splits a node into interned segment ids.
+     * Every new segment is interned for the lifetime of the server, so only split nodes from a bounded set,
+     * such as the nodes checked by a plugin.
+     *
+     * @param node to split, such as {@code essentials.home}
+     * @return segment ids of the node
+     */
+    public static int[] split(String node) {
+        String lower = node.toLowerCase(Locale.ROOT);
+        int count = 1;
+        for (int i = 0; i < lower.length(); i++) {
+            if (lower.charAt(i) == '.') {
+                count++;
+            }
+        }
+        int[] segments = new int[count];
+        int start = 0;
+        for (int i = 0; i < count; i++) {
+            int end = lower.indexOf('.', start);
+            if (end < 0) {
+                end = lower.length();
+            }
+            segments[i] = intern(lower.substring(start, end));
+            start = end + 1;
+        }
+        return segments;
+    }
+
+    static int intern(String segment) {
+        Integer id = SEGMENTS.get(segment);
+        if (id != null) {
+            return id;
+        }
+        return SEGMENTS.computeIfAbsent(segment, key -> NEXT_SEGMENT.getAndIncrement());
+    }
+
+    /**
+     * Gets the id of an already interned segment
+     *
+     * @param segment to get the id of
+     * @return id of the segment, or -1 if it was never interned
+     */
+    static int segment(String segment) {
+        Integer id = SEGMENTS.get(segment);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Looks up a node split with {@link #split(String)}, without allocating
+     *
+     * @param segments segment ids of the node
+     * @return Result of the node
+     */
+    public Result get(int[] segments) {
+        return RESULTS[resolve(segments)];
+    }
+
+    /**
+     * Looks up a compiled node, without allocating
+     *
+     * @param permission to look up
+     * @return Result of the node
+     */
+    public Result get(PermissionKey permission) {
+        return RESULTS[resolve(permission.segments)];
+    }
+
+    /**
+     * Looks up a node. Splits the node on every call without interning new segments,
+     * use {@link #get(int[])} for nodes that are checked often.
+     *
+     * @param node to look up, such as {@code essentials.home}
+     * @return Result of the node
+     */
+    public Result get(String node) {
+        String lower = node.toLowerCase(Locale.ROOT);
+        int parent = -1;
+        int current = 0;
+        int start = 0;
+        while (start <= lower.length()) {
+            int end = lower.indexOf('.', start);
+            if (end < 0) {
+                end = lower.length();
+            }
+            int next = child(current, segment(lower.substring(start, end)));
+            if (next < 0) {
+                return RESULTS[inherited[current]];
+            }
+            parent = current;
+            current = next;
+            start = end + 1;
+        }
+        return RESULTS[exact[current] != UNSET ? exact[current] : inherited[parent]];
+    }
+
+    /**
+     * Checks if a node split with {@link #split(String)} is granted
+     *
+     * @param segments segment ids of the node
+     * @return true if the node is granted, false if it is denied or undefined
+     */
+    public boolean has(int[] segments) {
+        return resolve(segments) == GRANTED;
+    }
+
+    /**
+     * Checks if a compiled node is granted
+     *
+     * @param permission to check
+     * @return true if the node is granted, false if it is denied or undefined
+     */
+    public boolean has(PermissionKey permission) {
+        return resolve(permission.segments) == GRANTED;
+    }
+
+    /**
+     * Checks many compiled nodes at once, for implementing
+     * {@link Permission#playerHasMask(String, org.bukkit.OfflinePlayer, PermissionKey[])}
+     *
+     * @param permissions to check
+     * @return BitSet with bit <i>i</i> set if <b>permissions[i]</b> is granted
+     */
+    public BitSet mask(PermissionKey[] permissions) {
+        BitSet mask = new BitSet(permissions.length);
+        for (int i = 0; i < permissions.length; i++) {
+            if (resolve(permissions[i].segments) == GRANTED) {
+                mask.set(i);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Checks if a node is granted
+     *
+     * @param node to check
+     * @return true if the node is granted, false if it is denied or undefined
+     */
+    public boolean has(String node) {
+        return get(node) == Result.TRUE;
+    }
+
+    /**
+     * Gets the number of trie nodes, a measure of the memory used
+     *
+     * @return number of nodes including the root
+     */
+    public int size() {
+        return exact.length;
+    }
+
+    private byte resolve(int[] segments) {
+        int parent = 0;
+        int current = 0;
+        for (int segment : segments) {
+            int next = child(current, segment);
+            if (next < 0) {
+                return inherited[current];
+            }
+            parent = current;
+            current = next;
+        }
+        if (segments.length == 0) {
+            return UNSET;
+        }
+        return exact[current] != UNSET ? exact[current] : inherited[parent];
+    }
+
+    private int child(int node, int segment) {
+        int index = Arrays.binarySearch(childKeys[node], segment);
+        return index < 0 ? -1 : children[node][index];
+    }
+
+    /**
+     * Mutable trie used while compiling
+     */
+    private static final class Builder {
+
+        private final List<Map<Integer, Integer>> children = new ArrayList<>();
+        private final List<Byte> exact = new ArrayList<>();
+        private final List<Byte> wildcard = new ArrayList<>();
+
+        private Builder() {
+            addNode();
+        }
+
+        private int addNode() {
+            children.add(new HashMap<>());
+            exact.add(UNSET);
+            wildcard.add(UNSET);
+            return exact.size() - 1;
+        }
+
+        private void add(int[] segments, byte value) {
+            int length = segments.length;
+            boolean isWildcard = length > 0 && segments[length - 1] == WILDCARD;
+            if (isWildcard) {
+                length--;
+            }
+            int node = 0;
+            for (int i = 0; i < length; i++) {
+                Integer next = children.get(node).get(segments[i]);
+                if (next == null) {
+                    next = addNode();
+                    children.get(node).put(segments[i], next);
+                }
+                node = next;
+            }
+            List<Byte> values = isWildcard ? wildcard : exact;
+            if (values.get(node) != DENIED) {
+                values.set(node, value);
+            }
+        }
+
+        private PermissionTrie build() {
+            int size = exact.size();
+            int[][] keys = new int[size][];
+            int[][] nodes = new int[size][];
+            byte[] exactValues = new byte[size];
+            byte[] inheritedValues = new byte[size];
+            for (int node = 0; node < size; node++) {
+                Map<Integer, Integer> map = children.get(node);
+                int[] sorted = map.isEmpty() ? NO_KEYS : new int[map.size()];
+                int i = 0;
+                for (int key : map.keySet()) {
+                    sorted[i++] = key;
+                }
+                Arrays.sort(sorted);
+                int[] targets = new int[sorted.length];
+                for (i = 0; i < sorted.length; i++) {
+                    targets[i] = map.get(sorted[i]);
+                }
+                keys[node] = sorted;
+                nodes[node] = targets;
+                exactValues[node] = exact.get(node);
+            }
+            // children are always created after their parent, so parents are resolved first
+            inheritedValues[0] = wildcard.get(0);
+            for (int node = 0; node < size; node++) {
+                for (int child : nodes[node]) {
+                    byte own = wildcard.get(child);
+                    inheritedValues[child] = own != UNSET ? own : inheritedValues[node];
+                }
+            }
+            return new PermissionTrie(keys, nodes, exactValues, inheritedValues);
+        }
+    }
+}